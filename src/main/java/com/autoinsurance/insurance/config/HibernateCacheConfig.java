@@ -0,0 +1,63 @@
+package com.autoinsurance.insurance.config;
+
+import com.autoinsurance.insurance.model.Policy;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache regions, backed by in-process Caffeine caches through JCache.
+ * Every region is created here with a size bound and an expire-after-write; the expiry bounds how
+ * long a node can serve entities changed by another node or by native SQL (bulk import, sweeper).
+ * hibernate.javax.cache.missing_cache_strategy=fail makes startup fail instead of silently
+ * creating an unbounded region for a new @Cache entity.
+ * With hibernate.generate_statistics on, hit/miss/put counts per region are published by Boot's
+ * Hibernate metrics (hibernate.second.level.cache.*).
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    // Hibernate's default region name for an entity is its class name
+    public static final String POLICY_REGION = Policy.class.getName();
+
+    @Value("${hibernate-cache.policy.maximum-size:1000}")
+    private long policyMaximumSize;
+
+    @Value("${hibernate-cache.policy.expire-after-write-seconds:60}")
+    private long policyExpireAfterWriteSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        createRegion(cacheManager, POLICY_REGION, policyMaximumSize, Duration.ofSeconds(policyExpireAfterWriteSeconds));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, long maximumSize, Duration expireAfterWrite) {
+        if (cacheManager.getCache(name) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
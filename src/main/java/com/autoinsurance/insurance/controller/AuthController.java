@@ -2,14 +2,20 @@ package com.autoinsurance.insurance.controller;
 
 import com.autoinsurance.insurance.dto.JwtResponse;
 import com.autoinsurance.insurance.dto.LoginRequest;
+import com.autoinsurance.insurance.dto.RefreshTokenRequest;
 import com.autoinsurance.insurance.dto.RegisterRequest;
+import com.autoinsurance.insurance.exception.ServiceUnavailableException;
 import com.autoinsurance.insurance.model.Role;
 import com.autoinsurance.insurance.model.User;
+import com.autoinsurance.insurance.security.LoginRateLimiter;
 import com.autoinsurance.insurance.service.AuthService;
 import com.autoinsurance.insurance.service.FileUploadService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -23,9 +29,14 @@ public class AuthController {
     @Autowired
     private FileUploadService fileUploadService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
         try {
+            // Throttle per IP and per login name before any password hashing (429 + Retry-After)
+            loginRateLimiter.acquire(loginRequest.getUsernameOrEmail(), request.getRemoteAddr());
             JwtResponse jwtResponse = authService.authenticateUser(loginRequest);
             return ResponseEntity.ok(jwtResponse);
         } catch (Exception e) {
@@ -34,6 +45,11 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return ResponseEntity.ok(authService.refreshToken(refreshTokenRequest.getRefreshToken()));
+    }
+
     @PostMapping("/register")
     public ResponseEntity<?> register(
             @RequestParam("firstName") String firstName,
@@ -69,6 +85,9 @@ public class AuthController {
             User user = authService.registerUser(registerRequest);
             return ResponseEntity.ok("User " + user.getUsername() + " registered successfully as " + user.getRole() + "!");
             
+        } catch (ServiceUnavailableException e) {
+            // Hashing pool saturated: let the handler answer 503 with Retry-After
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Registration failed: " + e.getMessage());
         }
@@ -86,15 +105,23 @@ public class AuthController {
             }
             User user = authService.registerUser(registerRequest);
             return ResponseEntity.ok("User " + user.getUsername() + " registered successfully as " + user.getRole() + "!");
+        } catch (ServiceUnavailableException e) {
+            // Hashing pool saturated: let the handler answer 503 with Retry-After
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Registration failed: " + e.getMessage());
         }
     }
 
-    @GetMapping("/logout")
-    public ResponseEntity<?> logout() {
-        // JWT is stateless, so we don't need to invalidate the token on the server
-        // The client should remove the token from local storage
+    @RequestMapping(value = "/logout", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<?> logout(HttpServletRequest request,
+                                    @RequestBody(required = false) RefreshTokenRequest refreshTokenRequest) {
+        // Revoke the bearer token and, if supplied, the refresh token until they expire
+        String headerAuth = request.getHeader(HttpHeaders.AUTHORIZATION);
+        String accessToken = StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")
+                ? headerAuth.substring(7) : null;
+        String refreshToken = refreshTokenRequest != null ? refreshTokenRequest.getRefreshToken() : null;
+        authService.logout(accessToken, refreshToken);
         return ResponseEntity.ok("Logged out successfully!");
     }
 }
@@ -5,6 +5,8 @@ import com.autoinsurance.insurance.dto.ClaimResponse;
 import com.autoinsurance.insurance.dto.ClaimUpdateRequest;
 import com.autoinsurance.insurance.model.ClaimStatus;
 import com.autoinsurance.insurance.service.ClaimService;
+import com.autoinsurance.insurance.model.User;
+import com.autoinsurance.insurance.security.CurrentUser;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -12,7 +14,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -31,9 +32,9 @@ public class ClaimController {
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<ClaimResponse> submitClaim(
             @Valid @RequestBody ClaimRequest claimRequest,
-            Principal principal) {
+            @CurrentUser User currentUser) {
         try {
-            ClaimResponse response = claimService.submitClaim(claimRequest, principal);
+            ClaimResponse response = claimService.submitClaim(claimRequest, currentUser);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
             throw new RuntimeException("Failed to submit claim: " + e.getMessage());
@@ -48,9 +49,9 @@ public class ClaimController {
     @PreAuthorize("hasRole('ADMIN') or hasRole('CUSTOMER')")
     public ResponseEntity<ClaimResponse> getClaimDetails(
             @PathVariable Long claimId,
-            Principal principal) {
+            @CurrentUser User currentUser) {
         try {
-            ClaimResponse response = claimService.getClaimDetails(claimId, principal);
+            ClaimResponse response = claimService.getClaimDetails(claimId, currentUser);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             throw new RuntimeException("Failed to get claim details: " + e.getMessage());
@@ -66,9 +67,9 @@ public class ClaimController {
     public ResponseEntity<ClaimResponse> updateClaimStatus(
             @PathVariable Long claimId,
             @Valid @RequestBody ClaimUpdateRequest updateRequest,
-            Principal principal) {
+            @CurrentUser User currentUser) {
         try {
-            ClaimResponse response = claimService.updateClaimStatus(claimId, updateRequest, principal);
+            ClaimResponse response = claimService.updateClaimStatus(claimId, updateRequest, currentUser);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             throw new RuntimeException("Failed to update claim status: " + e.getMessage());
@@ -81,9 +82,9 @@ public class ClaimController {
      */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('CUSTOMER')")
-    public ResponseEntity<List<ClaimResponse>> getAllClaims(Principal principal) {
+    public ResponseEntity<List<ClaimResponse>> getAllClaims(@CurrentUser User currentUser) {
         try {
-            List<ClaimResponse> response = claimService.getAllClaims(principal);
+            List<ClaimResponse> response = claimService.getAllClaims(currentUser);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             throw new RuntimeException("Failed to get claims: " + e.getMessage());
@@ -98,9 +99,9 @@ public class ClaimController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<ClaimResponse>> getClaimsByStatus(
             @PathVariable ClaimStatus status,
-            Principal principal) {
+            @CurrentUser User currentUser) {
         try {
-            List<ClaimResponse> response = claimService.getClaimsByStatus(status, principal);
+            List<ClaimResponse> response = claimService.getClaimsByStatus(status, currentUser);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             throw new RuntimeException("Failed to get claims by status: " + e.getMessage());
@@ -115,10 +116,10 @@ public class ClaimController {
     @PreAuthorize("hasRole('ADMIN') or (hasRole('CUSTOMER') and #customerId == authentication.principal.userId)")
     public ResponseEntity<List<ClaimResponse>> getCustomerClaims(
             @PathVariable Long customerId,
-            Principal principal) {
+            @CurrentUser User currentUser) {
         try {
             // This will be handled by the getAllClaims method with role-based filtering
-            List<ClaimResponse> response = claimService.getAllClaims(principal);
+            List<ClaimResponse> response = claimService.getAllClaims(currentUser);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             throw new RuntimeException("Failed to get customer claims: " + e.getMessage());
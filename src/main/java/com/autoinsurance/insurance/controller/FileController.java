@@ -2,8 +2,7 @@ package com.autoinsurance.insurance.controller;
 
 import com.autoinsurance.insurance.model.Role;
 import com.autoinsurance.insurance.model.User;
-import com.autoinsurance.insurance.service.UserService;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.autoinsurance.insurance.security.CurrentUser;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
@@ -17,16 +16,12 @@ import java.net.MalformedURLException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.Principal;
 
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173", "http://localhost:4200"})
 @RestController
 @RequestMapping("/api/files")
 public class FileController {
 
-    @Autowired
-    private UserService userService;
-
     private static final String UPLOAD_DIR = "uploads/id-proofs/";
 
     /**
@@ -35,10 +30,10 @@ public class FileController {
      */
     @GetMapping("/view/{fileName:.+}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Resource> viewFile(@PathVariable String fileName, Principal principal) {
+    public ResponseEntity<Resource> viewFile(@PathVariable String fileName, @CurrentUser User currentUser) {
         try {
             // Validate user permissions
-            validateUserAccess(principal);
+            validateUserAccess(currentUser);
             
             // Load file as Resource
             Path filePath = Paths.get(UPLOAD_DIR).resolve(fileName).normalize();
@@ -72,10 +67,10 @@ public class FileController {
      */
     @GetMapping("/download/{fileName:.+}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName, Principal principal) {
+    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName, @CurrentUser User currentUser) {
         try {
             // Validate user permissions
-            validateUserAccess(principal);
+            validateUserAccess(currentUser);
             
             // Load file as Resource
             Path filePath = Paths.get(UPLOAD_DIR).resolve(fileName).normalize();
@@ -102,11 +97,11 @@ public class FileController {
      */
     @GetMapping("/view-by-path")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Resource> viewFileByPath(@RequestParam String filePath, Principal principal) {
+    public ResponseEntity<Resource> viewFileByPath(@RequestParam String filePath, @CurrentUser User currentUser) {
         try {
             // Extract filename from path
             String fileName = Paths.get(filePath).getFileName().toString();
-            return viewFile(fileName, principal);
+            return viewFile(fileName, currentUser);
         } catch (Exception e) {
             throw new RuntimeException("Error accessing file: " + filePath, e);
         }
@@ -118,11 +113,11 @@ public class FileController {
      */
     @GetMapping("/download-by-path")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Resource> downloadFileByPath(@RequestParam String filePath, Principal principal) {
+    public ResponseEntity<Resource> downloadFileByPath(@RequestParam String filePath, @CurrentUser User currentUser) {
         try {
             // Extract filename from path
             String fileName = Paths.get(filePath).getFileName().toString();
-            return downloadFile(fileName, principal);
+            return downloadFile(fileName, currentUser);
         } catch (Exception e) {
             throw new RuntimeException("Error downloading file: " + filePath, e);
         }
@@ -131,10 +126,7 @@ public class FileController {
     /**
      * Validate that the current user has permission to access files
      */
-    private void validateUserAccess(Principal principal) {
-        User currentUser = userService.getUserByUsername(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
+    private void validateUserAccess(User currentUser) {
         if (currentUser.getRole() != Role.ADMIN) {
             throw new RuntimeException("Access denied. Only admins can access uploaded files.");
         }
@@ -146,9 +138,9 @@ public class FileController {
      */
     @GetMapping("/exists/{fileName:.+}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Boolean> fileExists(@PathVariable String fileName, Principal principal) {
+    public ResponseEntity<Boolean> fileExists(@PathVariable String fileName, @CurrentUser User currentUser) {
         try {
-            validateUserAccess(principal);
+            validateUserAccess(currentUser);
             Path filePath = Paths.get(UPLOAD_DIR).resolve(fileName).normalize();
             boolean exists = Files.exists(filePath);
             return ResponseEntity.ok(exists);
@@ -1,26 +1,51 @@
 package com.autoinsurance.insurance.controller;
 
+import com.autoinsurance.insurance.dto.PolicyImportResponse;
 import com.autoinsurance.insurance.dto.PolicyRequest;
 import com.autoinsurance.insurance.dto.PolicyResponse;
+import com.autoinsurance.insurance.dto.PolicySearchCriteria;
+import com.autoinsurance.insurance.dto.PolicySearchResponse;
+import com.autoinsurance.insurance.service.PolicyBulkService;
+import com.autoinsurance.insurance.service.PolicyCatalogCache;
 import com.autoinsurance.insurance.service.PolicyService;
+import com.autoinsurance.insurance.model.User;
+import com.autoinsurance.insurance.security.CurrentUser;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.security.Principal;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/policies")
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class PolicyController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     @Autowired
     private PolicyService policyService;
 
+    @Autowired
+    private PolicyBulkService policyBulkService;
+
+    // How long browsers and the CDN may reuse a public catalog response without revalidating
+    @Value("${policy.catalog.max-age-seconds:60}")
+    private long catalogMaxAgeSeconds;
+
     /**
      * Create a new policy
      * Allowed roles: ADMIN
@@ -29,9 +54,9 @@ public class PolicyController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<PolicyResponse> createPolicy(
             @Valid @RequestBody PolicyRequest policyRequest,
-            Principal principal) {
+            @CurrentUser User currentUser) {
         try {
-            PolicyResponse response = policyService.validateCreatePolicy(policyRequest, principal);
+            PolicyResponse response = policyService.validateCreatePolicy(policyRequest, currentUser);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
             throw new RuntimeException("Failed to create policy: " + e.getMessage());
@@ -47,9 +72,9 @@ public class PolicyController {
     public ResponseEntity<PolicyResponse> updatePolicy(
             @PathVariable Long policyId,
             @Valid @RequestBody PolicyRequest policyRequest,
-            Principal principal) {
+            @CurrentUser User currentUser) {
         try {
-            PolicyResponse response = policyService.validateUpdatePolicy(policyId, policyRequest, principal);
+            PolicyResponse response = policyService.validateUpdatePolicy(policyId, policyRequest, currentUser);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             throw new RuntimeException("Failed to update policy: " + e.getMessage());
@@ -93,22 +118,57 @@ public class PolicyController {
     }
 
     /**
-     * Delete a policy
+     * Delete a policy (?archive=true to always archive instead)
+     * Templates referenced by enrollments or claims are archived automatically
      * Allowed roles: ADMIN only
      */
     @DeleteMapping("/{policyId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<String> deletePolicy(
             @PathVariable Long policyId,
-            Principal principal) {
+            @RequestParam(defaultValue = "false") boolean archive,
+            @CurrentUser User currentUser) {
         try {
-            policyService.removePolicy(policyId, principal);
-            return ResponseEntity.ok("Policy deleted successfully");
+            boolean archived = policyService.removePolicy(policyId, archive, currentUser);
+            return ResponseEntity.ok(archived ? "Policy archived successfully" : "Policy deleted successfully");
         } catch (Exception e) {
             throw new RuntimeException("Failed to delete policy: " + e.getMessage());
         }
     }
 
+    /**
+     * Bulk import policy templates from CSV (header row required) or NDJSON
+     * Allowed roles: ADMIN only
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PolicyImportResponse> importPolicies(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body,
+            @CurrentUser User currentUser) {
+        try {
+            boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(TEXT_CSV);
+            return ResponseEntity.ok(policyBulkService.importPolicies(body, csv, currentUser));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to import policies: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Export all policy templates as CSV or NDJSON (?format=csv|ndjson), streamed row by row
+     * Allowed roles: ADMIN only
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportPolicies(@RequestParam(defaultValue = "csv") String format) {
+        boolean csv = !"ndjson".equalsIgnoreCase(format);
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"policies." + (csv ? "csv" : "ndjson") + "\"")
+                .body(policyBulkService.exportPolicies(csv));
+    }
+
     /**
      * Get policy by policy number (PROTECTED)
      * Access control is same as getPolicyById
@@ -135,24 +195,89 @@ public class PolicyController {
      * Policy templates serve as a product catalog and should be publicly visible
      */
     @GetMapping("/public")
-    public ResponseEntity<List<PolicyResponse>> getAllPolicyTemplatesPublic() {
+    public ResponseEntity<byte[]> getAllPolicyTemplatesPublic(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
         try {
-            List<PolicyResponse> policies = policyService.fetchAllPolicyTemplates();
-            return ResponseEntity.ok(policies);
+            // Pre-rendered JSON: no Jackson work per request, 304 when the client's ETag still matches
+            PolicyCatalogCache.RenderedCatalog catalog = policyService.fetchRenderedPolicyTemplates();
+            boolean gzip = acceptsGzip(acceptEncoding);
+            // Each encoding has its own ETag, validated against the variant being served
+            String etag = gzip ? catalog.gzipEtag() : catalog.etag();
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(etag)
+                    .cacheControl(catalogCacheControl())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(catalog.gzipJson());
+            }
+            return response.body(catalog.json());
         } catch (Exception e) {
             throw new RuntimeException("Failed to fetch policy templates: " + e.getMessage());
         }
     }
 
+    // Accept-Encoding per RFC 9110 12.5.3: "gzip;q=0" refuses gzip, "*" covers it unless gzip is listed
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (coding.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+        double quality = gzipQuality != null ? gzipQuality : anyQuality != null ? anyQuality : 0;
+        return quality > 0;
+    }
+
+    /**
+     * Search policy templates - PUBLIC ACCESS
+     * Filters: vehicleType, coverageType, policyStatus, min/maxCoverage, min/maxPremium, validOn
+     * Paging: sortBy, direction, size and the nextCursor of the previous page
+     */
+    @GetMapping("/public/search")
+    public ResponseEntity<PolicySearchResponse> searchPolicyTemplatesPublic(PolicySearchCriteria criteria) {
+        return ResponseEntity.ok()
+                .cacheControl(catalogCacheControl())
+                .body(policyService.searchPolicyTemplates(criteria));
+    }
+
     /**
      * Get policy template by ID - PUBLIC ACCESS
      * Policy templates serve as a product catalog and should be publicly visible
      */
     @GetMapping("/public/{policyId}")
-    public ResponseEntity<PolicyResponse> getPolicyTemplateByIdPublic(@PathVariable Long policyId) {
+    public ResponseEntity<PolicyResponse> getPolicyTemplateByIdPublic(@PathVariable Long policyId, WebRequest webRequest) {
         try {
+            // Catalog ETag: changes whenever any template changes, so it is safe for single templates too
+            String etag = policyService.fetchRenderedPolicyTemplates().etag();
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
             PolicyResponse policy = policyService.fetchPolicyTemplateById(policyId);
-            return ResponseEntity.ok(policy);
+            return ResponseEntity.ok().eTag(etag).cacheControl(catalogCacheControl()).body(policy);
         } catch (Exception e) {
             throw new RuntimeException("Failed to fetch policy template: " + e.getMessage());
         }
@@ -163,15 +288,23 @@ public class PolicyController {
      * Policy templates serve as a product catalog and should be publicly visible
      */
     @GetMapping("/public/number/{policyNumber}")
-    public ResponseEntity<PolicyResponse> getPolicyTemplateByNumberPublic(@PathVariable String policyNumber) {
+    public ResponseEntity<PolicyResponse> getPolicyTemplateByNumberPublic(@PathVariable String policyNumber, WebRequest webRequest) {
         try {
+            String etag = policyService.fetchRenderedPolicyTemplates().etag();
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
             PolicyResponse policy = policyService.fetchPolicyTemplateByNumber(policyNumber);
-            return ResponseEntity.ok(policy);
+            return ResponseEntity.ok().eTag(etag).cacheControl(catalogCacheControl()).body(policy);
         } catch (Exception e) {
             throw new RuntimeException("Failed to fetch policy template: " + e.getMessage());
         }
     }
 
+    private CacheControl catalogCacheControl() {
+        return CacheControl.maxAge(Duration.ofSeconds(catalogMaxAgeSeconds)).cachePublic();
+    }
+
     /**
      * @deprecated Use PolicyEnrollmentController for enrollment operations
      * This endpoint is kept for backward compatibility but redirects to new enrollment system
@@ -4,6 +4,8 @@ import com.autoinsurance.insurance.dto.EnrollmentEligibilityResponse;
 import com.autoinsurance.insurance.dto.EnrollmentRequest;
 import com.autoinsurance.insurance.dto.PolicyEnrollmentResponse;
 import com.autoinsurance.insurance.service.PolicyEnrollmentService;
+import com.autoinsurance.insurance.model.User;
+import com.autoinsurance.insurance.security.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173", "http://localhost:4200"})
 @RestController
@@ -24,6 +27,7 @@ public class PolicyEnrollmentController {
     /**
      * Customer enrolls in a policy template
      * Accepts optional vehicle details in request body
+     * Optional Idempotency-Key header: a retry with the same key returns the original enrollment
      * Allowed roles: CUSTOMER only
      */
     @PostMapping("/{policyTemplateId}/enroll")
@@ -31,10 +35,11 @@ public class PolicyEnrollmentController {
     public ResponseEntity<PolicyEnrollmentResponse> enrollInPolicyTemplate(
             @PathVariable Long policyTemplateId,
             @RequestBody(required = false) EnrollmentRequest enrollmentRequest,
-            Principal principal) {
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @CurrentUser User currentUser) {
         try {
             String vehicleDetails = (enrollmentRequest != null) ? enrollmentRequest.getVehicleDetails() : null;
-            PolicyEnrollmentResponse enrollment = enrollmentService.enrollInPolicyTemplate(policyTemplateId, vehicleDetails, principal);
+            PolicyEnrollmentResponse enrollment = enrollmentService.enrollInPolicyTemplate(policyTemplateId, vehicleDetails, idempotencyKey, currentUser);
             return ResponseEntity.status(HttpStatus.CREATED).body(enrollment);
         } catch (Exception e) {
             throw new RuntimeException("Failed to enroll in policy template: " + e.getMessage());
@@ -47,9 +52,9 @@ public class PolicyEnrollmentController {
      */
     @GetMapping("/pending")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<PolicyEnrollmentResponse>> getPendingEnrollments(Principal principal) {
+    public ResponseEntity<List<PolicyEnrollmentResponse>> getPendingEnrollments(@CurrentUser User currentUser) {
         try {
-            List<PolicyEnrollmentResponse> pendingEnrollments = enrollmentService.getPendingEnrollments(principal);
+            List<PolicyEnrollmentResponse> pendingEnrollments = enrollmentService.getPendingEnrollments(currentUser);
             return ResponseEntity.ok(pendingEnrollments);
         } catch (Exception e) {
             throw new RuntimeException("Failed to fetch pending enrollments: " + e.getMessage());
@@ -62,15 +67,32 @@ public class PolicyEnrollmentController {
      */
     @GetMapping("/my-enrollments")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public ResponseEntity<List<PolicyEnrollmentResponse>> getMyEnrollments(Principal principal) {
+    public ResponseEntity<List<PolicyEnrollmentResponse>> getMyEnrollments(@CurrentUser User currentUser) {
         try {
-            List<PolicyEnrollmentResponse> enrollments = enrollmentService.getCustomerEnrollments(principal);
+            List<PolicyEnrollmentResponse> enrollments = enrollmentService.getCustomerEnrollments(currentUser);
             return ResponseEntity.ok(enrollments);
         } catch (Exception e) {
             throw new RuntimeException("Failed to fetch your enrollments: " + e.getMessage());
         }
     }
 
+    /**
+     * Enrollment eligibility for the whole catalog in one call, keyed by template id
+     * ?templateIds=1,2,3 limits it to those templates; default is every active template
+     * Allowed roles: CUSTOMER only
+     */
+    @GetMapping("/eligibility")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<Map<Long, EnrollmentEligibilityResponse>> checkCatalogEligibility(
+            @RequestParam(required = false) List<Long> templateIds,
+            @CurrentUser User currentUser) {
+        try {
+            return ResponseEntity.ok(enrollmentService.checkEnrollmentEligibilityBatch(templateIds, currentUser));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to check enrollment eligibility: " + e.getMessage());
+        }
+    }
+
     /**
      * Check detailed enrollment eligibility for a specific template
      * Returns detailed information about enrollment status and eligibility
@@ -80,9 +102,9 @@ public class PolicyEnrollmentController {
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<EnrollmentEligibilityResponse> checkEnrollmentEligibility(
             @PathVariable Long policyTemplateId,
-            Principal principal) {
+            @CurrentUser User currentUser) {
         try {
-            EnrollmentEligibilityResponse eligibility = enrollmentService.checkEnrollmentEligibility(policyTemplateId, principal);
+            EnrollmentEligibilityResponse eligibility = enrollmentService.checkEnrollmentEligibility(policyTemplateId, currentUser);
             return ResponseEntity.ok(eligibility);
         } catch (Exception e) {
             throw new RuntimeException("Failed to check enrollment eligibility: " + e.getMessage());
@@ -97,9 +119,9 @@ public class PolicyEnrollmentController {
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<Boolean> canEnrollInTemplate(
             @PathVariable Long policyTemplateId,
-            Principal principal) {
+            @CurrentUser User currentUser) {
         try {
-            EnrollmentEligibilityResponse eligibility = enrollmentService.checkEnrollmentEligibility(policyTemplateId, principal);
+            EnrollmentEligibilityResponse eligibility = enrollmentService.checkEnrollmentEligibility(policyTemplateId, currentUser);
             return ResponseEntity.ok(eligibility.isCanEnroll());
         } catch (Exception e) {
             throw new RuntimeException("Failed to check enrollment eligibility: " + e.getMessage());
@@ -115,12 +137,12 @@ public class PolicyEnrollmentController {
     public ResponseEntity<PolicyEnrollmentResponse> approveEnrollment(
             @PathVariable Long enrollmentId,
             @RequestBody(required = false) String notes,
-            Principal principal) {
+            @CurrentUser User currentUser) {
         try {
             PolicyEnrollmentResponse approvedEnrollment = enrollmentService.approveEnrollment(
                 enrollmentId, 
                 notes, 
-                principal
+                currentUser
             );
             return ResponseEntity.ok(approvedEnrollment);
         } catch (Exception e) {
@@ -137,9 +159,9 @@ public class PolicyEnrollmentController {
     public ResponseEntity<PolicyEnrollmentResponse> declineEnrollment(
             @PathVariable Long enrollmentId,
             @RequestBody(required = false) String reason,
-            Principal principal) {
+            @CurrentUser User currentUser) {
         try {
-            PolicyEnrollmentResponse declinedEnrollment = enrollmentService.declineEnrollment(enrollmentId, reason, principal);
+            PolicyEnrollmentResponse declinedEnrollment = enrollmentService.declineEnrollment(enrollmentId, reason, currentUser);
             return ResponseEntity.ok(declinedEnrollment);
         } catch (Exception e) {
             throw new RuntimeException("Failed to decline enrollment: " + e.getMessage());
@@ -153,9 +175,9 @@ public class PolicyEnrollmentController {
      */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<PolicyEnrollmentResponse>> getAllEnrollments(Principal principal) {
+    public ResponseEntity<List<PolicyEnrollmentResponse>> getAllEnrollments(@CurrentUser User currentUser) {
         try {
-            List<PolicyEnrollmentResponse> allEnrollments = enrollmentService.getAllEnrollments(principal);
+            List<PolicyEnrollmentResponse> allEnrollments = enrollmentService.getAllEnrollments(currentUser);
             return ResponseEntity.ok(allEnrollments);
         } catch (Exception e) {
             throw new RuntimeException("Failed to fetch all enrollments: " + e.getMessage());
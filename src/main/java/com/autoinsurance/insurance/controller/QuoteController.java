@@ -0,0 +1,54 @@
+package com.autoinsurance.insurance.controller;
+
+import com.autoinsurance.insurance.dto.QuoteBatchRequest;
+import com.autoinsurance.insurance.dto.QuoteBatchResponse;
+import com.autoinsurance.insurance.dto.QuoteResponse;
+import com.autoinsurance.insurance.model.User;
+import com.autoinsurance.insurance.security.CurrentUser;
+import com.autoinsurance.insurance.service.QuoteService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/quotes")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class QuoteController {
+
+    @Autowired
+    private QuoteService quoteService;
+
+    /**
+     * Premium quote for one policy template, rated on the current user's age and claim history
+     * Allowed roles: ADMIN, CUSTOMER
+     */
+    @GetMapping("/{policyTemplateId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CUSTOMER')")
+    public ResponseEntity<QuoteResponse> getQuote(
+            @PathVariable Long policyTemplateId,
+            @CurrentUser User currentUser) {
+        try {
+            return ResponseEntity.ok(quoteService.quote(policyTemplateId, currentUser));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to quote policy: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Premium quotes for several templates (all active templates if the list is omitted)
+     * Allowed roles: ADMIN, CUSTOMER
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CUSTOMER')")
+    public ResponseEntity<QuoteBatchResponse> getQuotes(
+            @Valid @RequestBody QuoteBatchRequest request,
+            @CurrentUser User currentUser) {
+        try {
+            return ResponseEntity.ok(quoteService.quoteBatch(request.getPolicyTemplateIds(), currentUser));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to quote policies: " + e.getMessage());
+        }
+    }
+}
@@ -5,13 +5,14 @@ import com.autoinsurance.insurance.dto.SupportTicketResponse;
 import com.autoinsurance.insurance.dto.TicketResolutionRequest;
 import com.autoinsurance.insurance.model.TicketStatus;
 import com.autoinsurance.insurance.service.SupportService;
+import com.autoinsurance.insurance.model.User;
+import com.autoinsurance.insurance.security.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -29,9 +30,9 @@ public class SupportController {
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<SupportTicketResponse> createTicket(
             @RequestBody SupportTicketRequest request, 
-            Principal principal) {
+            @CurrentUser User currentUser) {
         
-        SupportTicketResponse response = supportService.createTicket(request, principal);
+        SupportTicketResponse response = supportService.createTicket(request, currentUser);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
@@ -44,9 +45,9 @@ public class SupportController {
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
     public ResponseEntity<SupportTicketResponse> getTicketDetails(
             @PathVariable Long id, 
-            Principal principal) {
+            @CurrentUser User currentUser) {
         
-        SupportTicketResponse response = supportService.getTicketDetails(id, principal);
+        SupportTicketResponse response = supportService.getTicketDetails(id, currentUser);
         return ResponseEntity.ok(response);
     }
 
@@ -59,9 +60,9 @@ public class SupportController {
     public ResponseEntity<SupportTicketResponse> resolveTicket(
             @PathVariable Long id, 
             @RequestBody TicketResolutionRequest request, 
-            Principal principal) {
+            @CurrentUser User currentUser) {
         
-        SupportTicketResponse response = supportService.resolveTicket(id, request, principal);
+        SupportTicketResponse response = supportService.resolveTicket(id, request, currentUser);
         return ResponseEntity.ok(response);
     }
 
@@ -72,9 +73,9 @@ public class SupportController {
      */
     @GetMapping("/tickets")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
-    public ResponseEntity<List<SupportTicketResponse>> getAllTickets(Principal principal) {
+    public ResponseEntity<List<SupportTicketResponse>> getAllTickets(@CurrentUser User currentUser) {
         
-        List<SupportTicketResponse> tickets = supportService.getAllTickets(principal);
+        List<SupportTicketResponse> tickets = supportService.getAllTickets(currentUser);
         return ResponseEntity.ok(tickets);
     }
 
@@ -84,9 +85,9 @@ public class SupportController {
      */
     @GetMapping("/tickets/open")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<SupportTicketResponse>> getAllOpenTickets(Principal principal) {
+    public ResponseEntity<List<SupportTicketResponse>> getAllOpenTickets(@CurrentUser User currentUser) {
         
-        List<SupportTicketResponse> openTickets = supportService.getAllOpenTickets(principal);
+        List<SupportTicketResponse> openTickets = supportService.getAllOpenTickets(currentUser);
         return ResponseEntity.ok(openTickets);
     }
 
@@ -99,9 +100,9 @@ public class SupportController {
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
     public ResponseEntity<List<SupportTicketResponse>> getTicketsByStatus(
             @PathVariable TicketStatus status, 
-            Principal principal) {
+            @CurrentUser User currentUser) {
         
-        List<SupportTicketResponse> tickets = supportService.getTicketsByStatus(status, principal);
+        List<SupportTicketResponse> tickets = supportService.getTicketsByStatus(status, currentUser);
         return ResponseEntity.ok(tickets);
     }
 
@@ -110,9 +111,9 @@ public class SupportController {
      */
     @GetMapping("/tickets/resolved-by-me")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<SupportTicketResponse>> getTicketsResolvedByMe(Principal principal) {
+    public ResponseEntity<List<SupportTicketResponse>> getTicketsResolvedByMe(@CurrentUser User currentUser) {
         
-        List<SupportTicketResponse> tickets = supportService.getTicketsResolvedByMe(principal);
+        List<SupportTicketResponse> tickets = supportService.getTicketsResolvedByMe(currentUser);
         return ResponseEntity.ok(tickets);
     }
 
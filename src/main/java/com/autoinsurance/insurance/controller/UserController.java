@@ -3,12 +3,12 @@ package com.autoinsurance.insurance.controller;
 import com.autoinsurance.insurance.dto.UserResponse;
 import com.autoinsurance.insurance.model.User;
 import com.autoinsurance.insurance.service.UserService;
+import com.autoinsurance.insurance.security.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
 import java.util.List;
 
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173", "http://localhost:4200"})
@@ -22,9 +22,8 @@ public class UserController {
      * Get current user profile
      */
     @GetMapping("/profile")
-    public ResponseEntity<UserResponse> getCurrentUserProfile() {
-        User user = userService.getCurrentUser();
-        return ResponseEntity.ok(new UserResponse(user));
+    public ResponseEntity<UserResponse> getCurrentUserProfile(@CurrentUser User currentUser) {
+        return ResponseEntity.ok(new UserResponse(currentUser));
     }
 
     @DeleteMapping("/{id}")
@@ -40,9 +39,9 @@ public class UserController {
      */
     @GetMapping("/detailed")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserResponse>> getAllUsersDetailed(Principal principal) {
+    public ResponseEntity<List<UserResponse>> getAllUsersDetailed(@CurrentUser User currentUser) {
         try {
-            List<UserResponse> users = userService.getAllUsersDetailed(principal);
+            List<UserResponse> users = userService.getAllUsersDetailed(currentUser);
             return ResponseEntity.ok(users);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(null);
@@ -55,9 +54,9 @@ public class UserController {
      */
     @GetMapping("/detailed/{userId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<UserResponse> getUserDetailed(@PathVariable Long userId, Principal principal) {
+    public ResponseEntity<UserResponse> getUserDetailed(@PathVariable Long userId, @CurrentUser User currentUser) {
         try {
-            UserResponse user = userService.getUserDetailedById(userId, principal);
+            UserResponse user = userService.getUserDetailedById(userId, currentUser);
             return ResponseEntity.ok(user);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(null);
@@ -70,9 +69,9 @@ public class UserController {
      */
     @GetMapping("/customers/detailed")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserResponse>> getAllCustomersDetailed(Principal principal) {
+    public ResponseEntity<List<UserResponse>> getAllCustomersDetailed(@CurrentUser User currentUser) {
         try {
-            List<UserResponse> customers = userService.getAllCustomersDetailed(principal);
+            List<UserResponse> customers = userService.getAllCustomersDetailed(currentUser);
             return ResponseEntity.ok(customers);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(null);
@@ -4,14 +4,16 @@ import com.autoinsurance.insurance.model.Role;
 
 public class JwtResponse {
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
     private Long id;
     private String username;
     private String email;
     private Role role;
 
-    public JwtResponse(String token, Long id, String username, String email, Role role) {
+    public JwtResponse(String token, String refreshToken, Long id, String username, String email, Role role) {
         this.token = token;
+        this.refreshToken = refreshToken;
         this.id = id;
         this.username = username;
         this.email = email;
@@ -26,6 +28,14 @@ public class JwtResponse {
         this.token = token;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public String getType() {
         return type;
     }
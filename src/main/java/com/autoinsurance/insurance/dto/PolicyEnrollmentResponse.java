@@ -23,6 +23,8 @@ public class PolicyEnrollmentResponse {
 
     // Customer-specific enrollment details
     private String vehicleDetails;
+    private String vin;
+    private String registrationNumber;
 
     // Policy template details
     private String vehicleType;
@@ -54,6 +56,8 @@ public class PolicyEnrollmentResponse {
 
         // Customer-specific enrollment details
         this.vehicleDetails = enrollment.getVehicleDetails();
+        this.vin = enrollment.getVin();
+        this.registrationNumber = enrollment.getRegistrationNumber();
 
         // Policy template details
         this.vehicleType = enrollment.getPolicyTemplate().getVehicleType();
@@ -177,6 +181,22 @@ public class PolicyEnrollmentResponse {
         this.vehicleDetails = vehicleDetails;
     }
 
+    public String getVin() {
+        return vin;
+    }
+
+    public void setVin(String vin) {
+        this.vin = vin;
+    }
+
+    public String getRegistrationNumber() {
+        return registrationNumber;
+    }
+
+    public void setRegistrationNumber(String registrationNumber) {
+        this.registrationNumber = registrationNumber;
+    }
+
     public String getVehicleType() {
         return vehicleType;
     }
@@ -0,0 +1,40 @@
+package com.autoinsurance.insurance.dto;
+
+import java.util.List;
+
+public class PolicyImportResponse {
+    private int imported;
+    private int rejected;
+    // "line N: reason", first 100 rejected rows only
+    private List<String> errors;
+
+    public PolicyImportResponse(int imported, int rejected, List<String> errors) {
+        this.imported = imported;
+        this.rejected = rejected;
+        this.errors = errors;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
@@ -10,6 +10,7 @@ public class PolicyRequest {
     private String policyNumber;
 
     @NotBlank(message = "Vehicle type is required")
+    @Size(max = 100, message = "Vehicle type must be at most 100 characters")
     private String vehicleType;
 
     @NotNull(message = "Coverage amount is required")
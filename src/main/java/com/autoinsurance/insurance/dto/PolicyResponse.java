@@ -1,6 +1,7 @@
 package com.autoinsurance.insurance.dto;
 
 import com.autoinsurance.insurance.model.Policy;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
@@ -16,12 +17,40 @@ public class PolicyResponse {
     private LocalDate endDate;
     private String policyStatus;
     private String policyHolderName;
+    // Set only by the authenticated reads, which include archived templates; omitted from the public catalog
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean archived;
 
 
     // Default constructor
     public PolicyResponse() {
     }
 
+    // Constructor for JPQL projections (no entity is loaded)
+    public PolicyResponse(Long policyId, String policyNumber, String vehicleType, BigDecimal coverageAmount,
+                          String coverageType, BigDecimal premiumAmount, LocalDate startDate, LocalDate endDate,
+                          Policy.PolicyStatus policyStatus) {
+        this.policyId = policyId;
+        this.policyNumber = policyNumber;
+        this.vehicleType = vehicleType;
+        this.coverageAmount = coverageAmount;
+        this.coverageType = coverageType;
+        this.premiumAmount = premiumAmount;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.policyStatus = policyStatus.name();
+        this.policyHolderName = null;
+    }
+
+    // JPQL projection that also reports whether the template is archived
+    public PolicyResponse(Long policyId, String policyNumber, String vehicleType, BigDecimal coverageAmount,
+                          String coverageType, BigDecimal premiumAmount, LocalDate startDate, LocalDate endDate,
+                          Policy.PolicyStatus policyStatus, boolean archived) {
+        this(policyId, policyNumber, vehicleType, coverageAmount, coverageType, premiumAmount, startDate, endDate,
+                policyStatus);
+        this.archived = archived;
+    }
+
     // Constructor from Policy entity
     public PolicyResponse(Policy policy) {
         this.policyId = policy.getPolicyId();
@@ -118,5 +147,13 @@ public class PolicyResponse {
         this.policyHolderName = policyHolderName;
     }
 
+    public Boolean getArchived() {
+        return archived;
+    }
+
+    public void setArchived(Boolean archived) {
+        this.archived = archived;
+    }
+
 
 }
@@ -0,0 +1,132 @@
+package com.autoinsurance.insurance.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Query parameters for GET /api/policies/public/search.
+ * All filters are optional; pages are continued with the nextCursor of the previous page.
+ */
+public class PolicySearchCriteria {
+
+    private String vehicleType;
+    private String coverageType;
+    private String policyStatus;
+    private BigDecimal minCoverage;
+    private BigDecimal maxCoverage;
+    private BigDecimal minPremium;
+    private BigDecimal maxPremium;
+
+    // Only templates whose start/end dates include this day
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate validOn;
+
+    // policyId, premiumAmount, coverageAmount, startDate or endDate
+    private String sortBy = "policyId";
+
+    // asc or desc
+    private String direction = "asc";
+
+    // Page size, capped at 100
+    private int size = 20;
+
+    private String cursor;
+
+    public String getVehicleType() {
+        return vehicleType;
+    }
+
+    public void setVehicleType(String vehicleType) {
+        this.vehicleType = vehicleType;
+    }
+
+    public String getCoverageType() {
+        return coverageType;
+    }
+
+    public void setCoverageType(String coverageType) {
+        this.coverageType = coverageType;
+    }
+
+    public String getPolicyStatus() {
+        return policyStatus;
+    }
+
+    public void setPolicyStatus(String policyStatus) {
+        this.policyStatus = policyStatus;
+    }
+
+    public BigDecimal getMinCoverage() {
+        return minCoverage;
+    }
+
+    public void setMinCoverage(BigDecimal minCoverage) {
+        this.minCoverage = minCoverage;
+    }
+
+    public BigDecimal getMaxCoverage() {
+        return maxCoverage;
+    }
+
+    public void setMaxCoverage(BigDecimal maxCoverage) {
+        this.maxCoverage = maxCoverage;
+    }
+
+    public BigDecimal getMinPremium() {
+        return minPremium;
+    }
+
+    public void setMinPremium(BigDecimal minPremium) {
+        this.minPremium = minPremium;
+    }
+
+    public BigDecimal getMaxPremium() {
+        return maxPremium;
+    }
+
+    public void setMaxPremium(BigDecimal maxPremium) {
+        this.maxPremium = maxPremium;
+    }
+
+    public LocalDate getValidOn() {
+        return validOn;
+    }
+
+    public void setValidOn(LocalDate validOn) {
+        this.validOn = validOn;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public void setSortBy(String sortBy) {
+        this.sortBy = sortBy;
+    }
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+}
@@ -0,0 +1,40 @@
+package com.autoinsurance.insurance.dto;
+
+import java.util.List;
+
+public class PolicySearchResponse {
+    private List<PolicyResponse> items;
+    // Pass as ?cursor= to get the next page; null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+
+    public PolicySearchResponse(List<PolicyResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    public List<PolicyResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<PolicyResponse> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,24 @@
+package com.autoinsurance.insurance.dto;
+
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class QuoteBatchRequest {
+
+    // Templates to quote; omit to quote every active template
+    @Size(max = 500, message = "At most 500 templates can be quoted per request")
+    private List<Long> policyTemplateIds;
+
+    // Default constructor
+    public QuoteBatchRequest() {
+    }
+
+    public List<Long> getPolicyTemplateIds() {
+        return policyTemplateIds;
+    }
+
+    public void setPolicyTemplateIds(List<Long> policyTemplateIds) {
+        this.policyTemplateIds = policyTemplateIds;
+    }
+}
@@ -0,0 +1,30 @@
+package com.autoinsurance.insurance.dto;
+
+import java.util.List;
+
+public class QuoteBatchResponse {
+    private List<QuoteResponse> quotes;
+    // Requested ids that are unknown, archived or not active
+    private List<Long> unavailableTemplateIds;
+
+    public QuoteBatchResponse(List<QuoteResponse> quotes, List<Long> unavailableTemplateIds) {
+        this.quotes = quotes;
+        this.unavailableTemplateIds = unavailableTemplateIds;
+    }
+
+    public List<QuoteResponse> getQuotes() {
+        return quotes;
+    }
+
+    public void setQuotes(List<QuoteResponse> quotes) {
+        this.quotes = quotes;
+    }
+
+    public List<Long> getUnavailableTemplateIds() {
+        return unavailableTemplateIds;
+    }
+
+    public void setUnavailableTemplateIds(List<Long> unavailableTemplateIds) {
+        this.unavailableTemplateIds = unavailableTemplateIds;
+    }
+}
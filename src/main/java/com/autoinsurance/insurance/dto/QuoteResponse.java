@@ -0,0 +1,91 @@
+package com.autoinsurance.insurance.dto;
+
+import java.math.BigDecimal;
+
+public class QuoteResponse {
+    private Long policyTemplateId;
+    private String policyNumber;
+    private String vehicleType;
+    private BigDecimal basePremium;
+    // Rating breakdown: premium = basePremium x ageFactor x vehicleFactor x claimFactor
+    private double ageFactor;
+    private double vehicleFactor;
+    private double claimFactor;
+    private BigDecimal premium;
+
+    public QuoteResponse(Long policyTemplateId, String policyNumber, String vehicleType, BigDecimal basePremium,
+                         double ageFactor, double vehicleFactor, double claimFactor, BigDecimal premium) {
+        this.policyTemplateId = policyTemplateId;
+        this.policyNumber = policyNumber;
+        this.vehicleType = vehicleType;
+        this.basePremium = basePremium;
+        this.ageFactor = ageFactor;
+        this.vehicleFactor = vehicleFactor;
+        this.claimFactor = claimFactor;
+        this.premium = premium;
+    }
+
+    public Long getPolicyTemplateId() {
+        return policyTemplateId;
+    }
+
+    public void setPolicyTemplateId(Long policyTemplateId) {
+        this.policyTemplateId = policyTemplateId;
+    }
+
+    public String getPolicyNumber() {
+        return policyNumber;
+    }
+
+    public void setPolicyNumber(String policyNumber) {
+        this.policyNumber = policyNumber;
+    }
+
+    public String getVehicleType() {
+        return vehicleType;
+    }
+
+    public void setVehicleType(String vehicleType) {
+        this.vehicleType = vehicleType;
+    }
+
+    public BigDecimal getBasePremium() {
+        return basePremium;
+    }
+
+    public void setBasePremium(BigDecimal basePremium) {
+        this.basePremium = basePremium;
+    }
+
+    public double getAgeFactor() {
+        return ageFactor;
+    }
+
+    public void setAgeFactor(double ageFactor) {
+        this.ageFactor = ageFactor;
+    }
+
+    public double getVehicleFactor() {
+        return vehicleFactor;
+    }
+
+    public void setVehicleFactor(double vehicleFactor) {
+        this.vehicleFactor = vehicleFactor;
+    }
+
+    public double getClaimFactor() {
+        return claimFactor;
+    }
+
+    public void setClaimFactor(double claimFactor) {
+        this.claimFactor = claimFactor;
+    }
+
+    public BigDecimal getPremium() {
+        return premium;
+    }
+
+    public void setPremium(BigDecimal premium) {
+        this.premium = premium;
+    }
+}
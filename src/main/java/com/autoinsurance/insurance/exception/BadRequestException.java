@@ -0,0 +1,8 @@
+package com.autoinsurance.insurance.exception;
+
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
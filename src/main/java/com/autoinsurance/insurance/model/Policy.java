@@ -1,11 +1,26 @@
 package com.autoinsurance.insurance.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "policies")
+// Templates change rarely and are dereferenced by enrollments, claims and tickets: keep them in the L2 cache
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "policies", indexes = {
+    // Lookups by number (/number/{n}) and the duplicate check on create
+    @Index(name = "uk_policies_policy_number", columnList = "policy_number", unique = true),
+    // Catalog search: equality filters first, then the range/sort column
+    @Index(name = "idx_policies_vehicle_coverage_status", columnList = "vehicle_type, coverage_type, policy_status"),
+    @Index(name = "idx_policies_status_premium", columnList = "policy_status, premium_amount, policy_id"),
+    @Index(name = "idx_policies_status_coverage", columnList = "policy_status, coverage_amount, policy_id"),
+    @Index(name = "idx_policies_validity", columnList = "start_date, end_date"),
+    // Lifecycle sweep: ACTIVE templates whose end date has passed
+    @Index(name = "idx_policies_status_end_date", columnList = "policy_status, end_date")
+})
 public class Policy {
 
     @Id
@@ -15,7 +30,8 @@ public class Policy {
     @Column(nullable = false, length = 50)
     private String policyNumber;
 
-    @Column(name = "vehicle_type", columnDefinition = "TEXT")
+    // VARCHAR rather than TEXT so it can lead a composite index
+    @Column(name = "vehicle_type", length = 100)
     private String vehicleType;
 
     @Column(precision = 10, scale = 2)
@@ -34,6 +50,11 @@ public class Policy {
     @Enumerated(EnumType.STRING)
     private PolicyStatus policyStatus;
 
+    // Soft delete: archived templates stay for the enrollments and claims that reference them,
+    // but are left out of the catalog, the search and enrollment
+    @Column(nullable = false)
+    private boolean archived;
+
     // Default constructor
     public Policy() {
     }
@@ -124,6 +145,14 @@ public class Policy {
         this.policyStatus = policyStatus;
     }
 
+    public boolean isArchived() {
+        return archived;
+    }
+
+    public void setArchived(boolean archived) {
+        this.archived = archived;
+    }
+
     // Policy holder relationships moved to PolicyEnrollment table
 
     public enum PolicyStatus {
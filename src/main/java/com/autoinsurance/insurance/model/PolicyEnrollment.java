@@ -4,7 +4,19 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "policy_enrollments")
+@Table(name = "policy_enrollments", indexes = {
+    // Enrollment policy numbers come from PolicyNumberGenerator; the index rejects any duplicate
+    @Index(name = "uk_policy_enrollments_generated_number", columnList = "generated_policy_number", unique = true),
+    // Eligibility checks: one customer's enrollments for one template, by status and date
+    @Index(name = "idx_policy_enrollments_customer_template_status",
+           columnList = "customer_id, policy_template_id, enrollment_status, enrolled_date"),
+    // At most one PENDING or APPROVED enrollment per (customer, template): see activeEnrollmentKey
+    @Index(name = "uk_policy_enrollments_active_key", columnList = "active_enrollment_key", unique = true),
+    // Retried POSTs with the same Idempotency-Key map to the same enrollment
+    @Index(name = "uk_policy_enrollments_customer_idempotency_key", columnList = "customer_id, idempotency_key", unique = true),
+    // Each vehicle can only be enrolled once: unique on the normalized identity, not the raw text
+    @Index(name = "uk_policy_enrollments_vehicle_identity_hash", columnList = "vehicle_identity_hash", unique = true)
+})
 public class PolicyEnrollment {
 
     @Id
@@ -40,8 +52,33 @@ public class PolicyEnrollment {
     @Column(name = "generated_policy_number")
     private String generatedPolicyNumber; // Policy number generated for this enrollment
 
-    @Column(name = "vehicle_details", length = 500, unique = true)
-    private String vehicleDetails; // Customer-specific vehicle information (must be unique)
+    @Column(name = "vehicle_details", length = 500)
+    private String vehicleDetails; // Customer-specific vehicle information, as entered
+
+    // Parsed from vehicleDetails by setVehicleDetails(); see VehicleIdentity
+    @Column(name = "vin", length = 17)
+    private String vin;
+
+    @Column(name = "registration_number", length = VehicleIdentity.MAX_REGISTRATION_LENGTH)
+    private String registrationNumber;
+
+    // SHA-256 of the normalized vehicle identity; 32 bytes, so the unique index stays small
+    @Column(name = "vehicle_identity_hash", columnDefinition = "binary(32)")
+    private byte[] vehicleIdentityHash;
+
+    // Set by VehicleIdentityBackfill on older rows whose vehicle was already enrolled; such rows
+    // keep a NULL hash until an admin resolves them
+    @Column(name = "vehicle_identity_conflict")
+    private Boolean vehicleIdentityConflict;
+
+    // "<customerId>:<templateId>" while PENDING or APPROVED, NULL otherwise. MySQL has no partial
+    // indexes, but a unique index ignores NULLs, so this acts as one on the active pair
+    @Column(name = "active_enrollment_key", length = 64)
+    private String activeEnrollmentKey;
+
+    // Client-supplied Idempotency-Key of the POST that created this enrollment
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
 
     // Default constructor
     public PolicyEnrollment() {
@@ -63,7 +100,18 @@ public class PolicyEnrollment {
         this.enrollmentStatus = EnrollmentStatus.PENDING;
         this.enrolledDate = LocalDateTime.now();
         this.generatedPolicyNumber = generatedPolicyNumber;
-        this.vehicleDetails = vehicleDetails;
+        setVehicleDetails(vehicleDetails);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateActiveEnrollmentKey() {
+        boolean active = enrollmentStatus == EnrollmentStatus.PENDING || enrollmentStatus == EnrollmentStatus.APPROVED;
+        activeEnrollmentKey = active ? activeEnrollmentKey(customer.getUserId(), policyTemplate.getPolicyId()) : null;
+    }
+
+    public static String activeEnrollmentKey(Long customerId, Long policyTemplateId) {
+        return customerId + ":" + policyTemplateId;
     }
 
     // Getters and Setters
@@ -145,9 +193,38 @@ public class PolicyEnrollment {
 
     public void setVehicleDetails(String vehicleDetails) {
         this.vehicleDetails = vehicleDetails;
+        VehicleIdentity identity = VehicleIdentity.parse(vehicleDetails);
+        this.vin = identity == null ? null : identity.getVin();
+        this.registrationNumber = identity == null ? null : identity.getRegistrationNumber();
+        this.vehicleIdentityHash = identity == null ? null : identity.getHash();
+        this.vehicleIdentityConflict = null;
+    }
+
+    public String getVin() {
+        return vin;
+    }
+
+    public String getRegistrationNumber() {
+        return registrationNumber;
+    }
+
+    public byte[] getVehicleIdentityHash() {
+        return vehicleIdentityHash;
     }
 
     // Enum for enrollment status
+    public String getActiveEnrollmentKey() {
+        return activeEnrollmentKey;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
     public enum EnrollmentStatus {
         PENDING,            // Enrollment submitted, awaiting admin review
         APPROVED,           // Admin approved, policy is active
@@ -0,0 +1,71 @@
+package com.autoinsurance.insurance.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A refresh token that has been issued and not yet redeemed, revoked or expired.
+ * Redeeming deletes the row, so a token can be used once no matter which node sees it.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+    // Revoke-all for a user, and the cleanup of that user's expired rows on every issue
+    @Index(name = "idx_refresh_tokens_user_expires", columnList = "user_id, expires_at")
+})
+public class RefreshToken implements Persistable<String> {
+
+    // jti of the refresh JWT
+    @Id
+    @Column(name = "token_id", length = 36)
+    private String tokenId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // The id is assigned, so save() would merge (SELECT, then INSERT); new rows go straight to INSERT
+    @Transient
+    private boolean newRow = true;
+
+    // Default constructor
+    public RefreshToken() {
+    }
+
+    public RefreshToken(String tokenId, Long userId, LocalDateTime expiresAt) {
+        this.tokenId = tokenId;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.newRow = false;
+    }
+
+    @Override
+    public String getId() {
+        return tokenId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRow;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -9,7 +9,13 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    // Login and registration lookups (UserRepository#findAuthByLogin, #findRegistrationConflicts)
+    @Index(name = "idx_users_username", columnList = "username", unique = true),
+    @Index(name = "idx_users_email", columnList = "email", unique = true),
+    // Admin customer listings (findByRole)
+    @Index(name = "idx_users_role", columnList = "role")
+})
 public class User implements UserDetails {
 
     @Id
@@ -22,13 +28,13 @@ public class User implements UserDetails {
     @Column(name = "last_name", nullable = false)
     private String lastName;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
 
     @Column(nullable = false)
     private String password;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
     @Enumerated(EnumType.STRING)
@@ -40,6 +46,10 @@ public class User implements UserDetails {
     @Column(name = "id_proof_file_path")
     private String idProofFilePath;
 
+    // Embedded in issued JWTs; incrementing it revokes all of the user's tokens
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
     // Default constructor
     public User() {
     }
@@ -169,4 +179,12 @@ public class User implements UserDetails {
     public void setIdProofFilePath(String idProofFilePath) {
         this.idProofFilePath = idProofFilePath;
     }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
 }
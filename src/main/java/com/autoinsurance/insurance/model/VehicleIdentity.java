@@ -0,0 +1,117 @@
+package com.autoinsurance.insurance.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Structured identity parsed from the free-form vehicle details of an enrollment.
+ * The VIN and registration number are pulled out of the text where present; the identity key
+ * is the VIN if there is one, else the registration number, else the whole text lowercased
+ * with whitespace collapsed. Its SHA-256 is what the database keeps unique, so "VIN: abc..."
+ * and "vin abc..." are the same vehicle.
+ */
+public final class VehicleIdentity {
+
+    public static final int HASH_LENGTH = 32;
+    public static final int MAX_REGISTRATION_LENGTH = 15;
+
+    // 17 characters, no I, O or Q (ISO 3779)
+    private static final String VIN_CHARS = "A-HJ-NPR-Z0-9";
+    private static final Pattern LABELED_VIN = Pattern.compile(
+            "\\bVIN\\b(?:\\s*(?:NO|NUMBER)\\b)?\\W*([A-Z0-9](?:[ -]?[A-Z0-9]){16})(?![A-Z0-9])");
+    private static final Pattern BARE_VIN = Pattern.compile(
+            "(?<![A-Z0-9])(?=[" + VIN_CHARS + "]*[0-9])[" + VIN_CHARS + "]{17}(?![A-Z0-9])");
+    private static final Pattern VALID_VIN = Pattern.compile("[" + VIN_CHARS + "]{17}");
+    // "Reg: KA01 AB 1234", "Registration No. AB12-CDE", "Plate #XYZ123", up to the next separator
+    private static final Pattern REGISTRATION = Pattern.compile(
+            "\\b(?:REGISTRATION|REGN|REG|PLATE)\\b(?:\\s*(?:NO|NUMBER)\\b)?\\.?\\s*[:#=-]?\\s*([A-Z0-9]+(?:[ -][A-Z0-9]+)*)");
+    private static final Pattern NOT_ALPHANUMERIC = Pattern.compile("[^A-Z0-9]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final String vin;
+    private final String registrationNumber;
+    private final byte[] hash;
+
+    private VehicleIdentity(String vin, String registrationNumber, byte[] hash) {
+        this.vin = vin;
+        this.registrationNumber = registrationNumber;
+        this.hash = hash;
+    }
+
+    /**
+     * Identity of the given vehicle details, or null if there are none.
+     */
+    public static VehicleIdentity parse(String vehicleDetails) {
+        if (vehicleDetails == null || vehicleDetails.isBlank()) {
+            return null;
+        }
+        String text = Normalizer.normalize(vehicleDetails, Normalizer.Form.NFKC).strip();
+        String upper = text.toUpperCase(Locale.ROOT);
+
+        String vin = findVin(upper);
+        String registrationNumber = findRegistration(upper);
+        String key;
+        if (vin != null) {
+            key = "VIN|" + vin;
+        } else if (registrationNumber != null) {
+            key = "REG|" + registrationNumber;
+        } else {
+            key = "TEXT|" + WHITESPACE.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ");
+        }
+        return new VehicleIdentity(vin, registrationNumber, SHA_256.get().digest(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String findVin(String upper) {
+        Matcher labeled = LABELED_VIN.matcher(upper);
+        if (labeled.find()) {
+            String candidate = labeled.group(1).replace(" ", "").replace("-", "");
+            if (VALID_VIN.matcher(candidate).matches()) {
+                return candidate;
+            }
+        }
+        Matcher bare = BARE_VIN.matcher(upper);
+        return bare.find() ? bare.group() : null;
+    }
+
+    private static String findRegistration(String upper) {
+        Matcher matcher = REGISTRATION.matcher(upper);
+        if (!matcher.find()) {
+            return null;
+        }
+        String value = matcher.group(1);
+        String normalized = NOT_ALPHANUMERIC.matcher(value).replaceAll("");
+        if (normalized.length() > MAX_REGISTRATION_LENGTH) {
+            // Ran on into following words ("Reg KA01AB1234 Toyota Camry"): keep the first token
+            normalized = NOT_ALPHANUMERIC.matcher(value.split("[ -]", 2)[0]).replaceAll("");
+        }
+        return normalized.length() >= 2 && normalized.length() <= MAX_REGISTRATION_LENGTH ? normalized : null;
+    }
+
+    public String getVin() {
+        return vin;
+    }
+
+    public String getRegistrationNumber() {
+        return registrationNumber;
+    }
+
+    /**
+     * SHA-256 of the identity key; a fresh copy.
+     */
+    public byte[] getHash() {
+        return hash.clone();
+    }
+}
@@ -28,6 +28,11 @@ public interface ClaimRepository extends JpaRepository<Claim, Long> {
     // Count claims by status
     long countByClaimStatus(ClaimStatus claimStatus);
 
+    // Claim history for rating: the customer's claims except rejected ones
+    @Query("SELECT COUNT(c) FROM Claim c WHERE c.customer.userId = :customerId " +
+           "AND c.claimStatus <> com.autoinsurance.insurance.model.ClaimStatus.REJECTED")
+    long countRatedClaimsByCustomerId(@Param("customerId") Long customerId);
+
     // Find recent claims (last 30 days)
     @Query("SELECT c FROM Claim c WHERE c.claimDate >= CURRENT_DATE - 30 DAY")
     List<Claim> findRecentClaims();
@@ -0,0 +1,13 @@
+package com.autoinsurance.insurance.repository;
+
+import com.autoinsurance.insurance.model.Policy;
+
+/**
+ * A policy template's status together with one customer's enrollment history for it,
+ * read in a single aggregate query (PolicyEnrollmentRepository.findEligibility).
+ */
+public interface EnrollmentEligibilityView extends EnrollmentHistory {
+    String getPolicyNumber();
+    Policy.PolicyStatus getPolicyStatus();
+    boolean isArchived();
+}
@@ -0,0 +1,14 @@
+package com.autoinsurance.insurance.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * One customer's enrollments for one policy template, aggregated per status.
+ */
+public interface EnrollmentHistory {
+    Long getApprovedCount();
+    Long getPendingCount();
+    // enrolledDate of the latest DECLINED / WITHDRAWN enrollment, null if none
+    LocalDateTime getLastDeclined();
+    LocalDateTime getLastWithdrawn();
+}
@@ -0,0 +1,10 @@
+package com.autoinsurance.insurance.repository;
+
+/**
+ * Id, customer and template of an enrollment, for the active enrollment key backfill.
+ */
+public interface EnrollmentPair {
+    Long getEnrollmentId();
+    Long getCustomerId();
+    Long getPolicyTemplateId();
+}
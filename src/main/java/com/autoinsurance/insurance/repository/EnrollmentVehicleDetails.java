@@ -0,0 +1,9 @@
+package com.autoinsurance.insurance.repository;
+
+/**
+ * Id and raw vehicle details of an enrollment, for the vehicle identity backfill.
+ */
+public interface EnrollmentVehicleDetails {
+    Long getEnrollmentId();
+    String getVehicleDetails();
+}
@@ -3,7 +3,9 @@ package com.autoinsurance.insurance.repository;
 import com.autoinsurance.insurance.model.Policy;
 import com.autoinsurance.insurance.model.PolicyEnrollment;
 import com.autoinsurance.insurance.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -38,6 +40,70 @@ public interface PolicyEnrollmentRepository extends JpaRepository<PolicyEnrollme
     @Query("SELECT pe FROM PolicyEnrollment pe WHERE pe.customer = :customer AND pe.policyTemplate = :policyTemplate ORDER BY pe.enrolledDate DESC LIMIT 1")
     Optional<PolicyEnrollment> findLatestEnrollmentByCustomerAndTemplate(@Param("customer") User customer, @Param("policyTemplate") Policy policyTemplate);
 
+    // Eligibility in one round-trip: the template row LEFT JOINed to this customer's enrollments for it,
+    // aggregated to per-status flags (idx_policy_enrollments_customer_template_status); empty if no such template
+    @Query("SELECT p.policyNumber AS policyNumber, p.policyStatus AS policyStatus, p.archived AS archived, " +
+           "SUM(CASE WHEN pe.enrollmentStatus = 'APPROVED' THEN 1 ELSE 0 END) AS approvedCount, " +
+           "SUM(CASE WHEN pe.enrollmentStatus = 'PENDING' THEN 1 ELSE 0 END) AS pendingCount, " +
+           "MAX(CASE WHEN pe.enrollmentStatus = 'DECLINED' THEN pe.enrolledDate END) AS lastDeclined, " +
+           "MAX(CASE WHEN pe.enrollmentStatus = 'WITHDRAWN' THEN pe.enrolledDate END) AS lastWithdrawn " +
+           "FROM Policy p LEFT JOIN PolicyEnrollment pe ON pe.policyTemplate = p AND pe.customer.userId = :customerId " +
+           "WHERE p.policyId = :policyTemplateId " +
+           "GROUP BY p.policyId, p.policyNumber, p.policyStatus, p.archived")
+    Optional<EnrollmentEligibilityView> findEligibility(@Param("customerId") Long customerId,
+                                                        @Param("policyTemplateId") Long policyTemplateId);
+
+    // The customer's whole enrollment history, one grouped row per template (same index as findEligibility)
+    @Query("SELECT pe.policyTemplate.policyId AS policyTemplateId, " +
+           "SUM(CASE WHEN pe.enrollmentStatus = 'APPROVED' THEN 1 ELSE 0 END) AS approvedCount, " +
+           "SUM(CASE WHEN pe.enrollmentStatus = 'PENDING' THEN 1 ELSE 0 END) AS pendingCount, " +
+           "MAX(CASE WHEN pe.enrollmentStatus = 'DECLINED' THEN pe.enrolledDate END) AS lastDeclined, " +
+           "MAX(CASE WHEN pe.enrollmentStatus = 'WITHDRAWN' THEN pe.enrolledDate END) AS lastWithdrawn " +
+           "FROM PolicyEnrollment pe WHERE pe.customer.userId = :customerId " +
+           "GROUP BY pe.policyTemplate.policyId")
+    List<TemplateEnrollmentHistory> findHistoryByCustomer(@Param("customerId") Long customerId);
+
+    // Enrollment created by an earlier request with the same Idempotency-Key
+    @Query("SELECT pe FROM PolicyEnrollment pe WHERE pe.customer.userId = :customerId AND pe.idempotencyKey = :idempotencyKey")
+    Optional<PolicyEnrollment> findByCustomerIdAndIdempotencyKey(@Param("customerId") Long customerId,
+                                                                @Param("idempotencyKey") String idempotencyKey);
+
+    // Unique-key probes used to explain a failed enrollment insert
+    boolean existsByActiveEnrollmentKey(String activeEnrollmentKey);
+
+    boolean existsByVehicleIdentityHash(byte[] vehicleIdentityHash);
+
+    // Rows written before vehicle identities were stored, in id order after the given id;
+    // blank details and rows already reported as conflicts are skipped
+    @Query("SELECT pe.enrollmentId AS enrollmentId, pe.vehicleDetails AS vehicleDetails FROM PolicyEnrollment pe " +
+           "WHERE pe.vehicleDetails IS NOT NULL AND TRIM(pe.vehicleDetails) <> '' AND pe.vehicleIdentityHash IS NULL " +
+           "AND pe.vehicleIdentityConflict IS NULL AND pe.enrollmentId > :afterId ORDER BY pe.enrollmentId")
+    List<EnrollmentVehicleDetails> findWithoutVehicleIdentity(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Vehicle identity columns only: no entity load, no @PreUpdate, other columns untouched
+    @Modifying
+    @Query("UPDATE PolicyEnrollment pe SET pe.vin = :vin, pe.registrationNumber = :registrationNumber, " +
+           "pe.vehicleIdentityHash = :hash WHERE pe.enrollmentId = :enrollmentId")
+    int updateVehicleIdentity(@Param("enrollmentId") Long enrollmentId, @Param("vin") String vin,
+                              @Param("registrationNumber") String registrationNumber, @Param("hash") byte[] hash);
+
+    @Modifying
+    @Query("UPDATE PolicyEnrollment pe SET pe.vehicleIdentityConflict = true WHERE pe.enrollmentId = :enrollmentId")
+    int markVehicleIdentityConflict(@Param("enrollmentId") Long enrollmentId);
+
+    // PENDING or APPROVED rows written before active_enrollment_key existed, in id order after the given id
+    @Query("SELECT pe.enrollmentId AS enrollmentId, pe.customer.userId AS customerId, " +
+           "pe.policyTemplate.policyId AS policyTemplateId FROM PolicyEnrollment pe " +
+           "WHERE pe.enrollmentStatus IN ('PENDING', 'APPROVED') AND pe.activeEnrollmentKey IS NULL " +
+           "AND pe.enrollmentId > :afterId ORDER BY pe.enrollmentId")
+    List<EnrollmentPair> findActiveWithoutEnrollmentKey(@Param("afterId") Long afterId, Pageable pageable);
+
+    // active_enrollment_key only, as updateVehicleIdentity
+    @Modifying
+    @Query("UPDATE PolicyEnrollment pe SET pe.activeEnrollmentKey = :activeEnrollmentKey WHERE pe.enrollmentId = :enrollmentId")
+    int updateActiveEnrollmentKey(@Param("enrollmentId") Long enrollmentId,
+                                  @Param("activeEnrollmentKey") String activeEnrollmentKey);
+
     // Find all enrollments pending admin review (newly submitted)
     @Query("SELECT pe FROM PolicyEnrollment pe WHERE pe.enrollmentStatus = 'PENDING' ORDER BY pe.enrolledDate ASC")
     List<PolicyEnrollment> findAllPendingEnrollments();
@@ -1,22 +1,84 @@
 package com.autoinsurance.insurance.repository;
 
+import com.autoinsurance.insurance.dto.PolicyResponse;
 import com.autoinsurance.insurance.model.Policy;
 import com.autoinsurance.insurance.model.Policy.PolicyStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PolicyRepository extends JpaRepository<Policy, Long> {
+public interface PolicyRepository extends JpaRepository<Policy, Long>, JpaSpecificationExecutor<Policy> {
 
     // Find policy by policy number
     Optional<Policy> findByPolicyNumber(String policyNumber);
 
+    // Index-only duplicate check used before creating a template
+    boolean existsByPolicyNumber(String policyNumber);
+
+    // Which of these numbers are already taken (one IN lookup per import chunk)
+    @Query("SELECT p.policyNumber FROM Policy p WHERE p.policyNumber IN :policyNumbers")
+    List<String> findExistingPolicyNumbers(@Param("policyNumbers") Collection<String> policyNumbers);
+
+    // Whole (non-archived) catalog as DTOs built from the result set: no managed entities, no dirty-checking snapshots
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.autoinsurance.insurance.dto.PolicyResponse(p.policyId, p.policyNumber, p.vehicleType, " +
+           "p.coverageAmount, p.coverageType, p.premiumAmount, p.startDate, p.endDate, p.policyStatus) " +
+           "FROM Policy p WHERE p.archived = false ORDER BY p.policyId")
+    List<PolicyResponse> findAllTemplateResponses();
+
+    // Authenticated (non-public) reads: archived templates included, with their archived flag
+    String TEMPLATE_RESPONSE_WITH_ARCHIVED = "SELECT new com.autoinsurance.insurance.dto.PolicyResponse(p.policyId, " +
+           "p.policyNumber, p.vehicleType, p.coverageAmount, p.coverageType, p.premiumAmount, p.startDate, p.endDate, " +
+           "p.policyStatus, p.archived) FROM Policy p ";
+
+    @Transactional(readOnly = true)
+    @Query(TEMPLATE_RESPONSE_WITH_ARCHIVED + "ORDER BY p.policyId")
+    List<PolicyResponse> findAllTemplateResponsesWithArchived();
+
+    @Transactional(readOnly = true)
+    @Query(TEMPLATE_RESPONSE_WITH_ARCHIVED + "WHERE p.policyId = :policyId")
+    Optional<PolicyResponse> findTemplateResponseById(@Param("policyId") Long policyId);
+
+    // uk_policies_policy_number
+    @Transactional(readOnly = true)
+    @Query(TEMPLATE_RESPONSE_WITH_ARCHIVED + "WHERE p.policyNumber = :policyNumber")
+    Optional<PolicyResponse> findTemplateResponseByPolicyNumber(@Param("policyNumber") String policyNumber);
+
     // Find policies by status
     List<Policy> findByPolicyStatus(PolicyStatus policyStatus);
 
+    // Expire one batch of ACTIVE templates past their end date (idx_policies_status_end_date); returns rows changed
+    @Modifying
+    @Query(value = "UPDATE policies SET policy_status = 'INACTIVE' " +
+                   "WHERE policy_status = 'ACTIVE' AND end_date < :today LIMIT :batchSize", nativeQuery = true)
+    int deactivateExpired(@Param("today") LocalDate today, @Param("batchSize") int batchSize);
+
+    // Kinds of rows still referencing the template (0-2), one statement; EXISTS stops at the first match
+    @Query(value = "SELECT CASE WHEN EXISTS (SELECT 1 FROM policy_enrollments WHERE policy_template_id = :policyId) THEN 1 ELSE 0 END " +
+                   "+ CASE WHEN EXISTS (SELECT 1 FROM claims WHERE policy_id = :policyId) THEN 1 ELSE 0 END", nativeQuery = true)
+    int countDependencies(@Param("policyId") Long policyId);
+
+    // Soft delete without loading the entity; returns 0 if missing or already archived
+    @Modifying
+    @Query("UPDATE Policy p SET p.archived = true, p.policyStatus = com.autoinsurance.insurance.model.Policy.PolicyStatus.INACTIVE " +
+           "WHERE p.policyId = :policyId AND p.archived = false")
+    int archiveById(@Param("policyId") Long policyId);
+
+    // Hard delete by primary key, no entity load; returns 0 if missing
+    @Modifying
+    @Query("DELETE FROM Policy p WHERE p.policyId = :policyId")
+    int deleteByIdDirect(@Param("policyId") Long policyId);
+
     /*
      * ==========================================================================
      * REMOVED METHODS - Policy entity no longer has policyHolder fields
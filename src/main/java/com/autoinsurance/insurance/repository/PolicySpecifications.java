@@ -0,0 +1,87 @@
+package com.autoinsurance.insurance.repository;
+
+import com.autoinsurance.insurance.dto.PolicySearchCriteria;
+import com.autoinsurance.insurance.model.Policy;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria for the policy template search.
+ * Equality filters come first so they line up with the leading columns of the
+ * policies composite indexes; the keyset condition continues after the last row
+ * of the previous page instead of skipping OFFSET rows.
+ */
+public final class PolicySpecifications {
+
+    private PolicySpecifications() {
+    }
+
+    public static Specification<Policy> matching(PolicySearchCriteria criteria, Policy.PolicyStatus status) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isFalse(root.get("archived")));
+            if (criteria.getVehicleType() != null) {
+                predicates.add(cb.equal(root.get("vehicleType"), criteria.getVehicleType()));
+            }
+            if (criteria.getCoverageType() != null) {
+                predicates.add(cb.equal(root.get("coverageType"), criteria.getCoverageType()));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("policyStatus"), status));
+            }
+            if (criteria.getMinCoverage() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("coverageAmount"), criteria.getMinCoverage()));
+            }
+            if (criteria.getMaxCoverage() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("coverageAmount"), criteria.getMaxCoverage()));
+            }
+            if (criteria.getMinPremium() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("premiumAmount"), criteria.getMinPremium()));
+            }
+            if (criteria.getMaxPremium() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("premiumAmount"), criteria.getMaxPremium()));
+            }
+            if (criteria.getValidOn() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("startDate"), criteria.getValidOn()));
+                // Templates without an end date stay valid
+                predicates.add(cb.or(
+                        cb.isNull(root.get("endDate")),
+                        cb.greaterThanOrEqualTo(root.get("endDate"), criteria.getValidOn())));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Rows strictly after (sortValue, policyId) in the given order. NULL sorts lowest, as in MySQL:
+     * ascending pages start with the templates that have no value (by id), descending pages end
+     * with them. A null sortValue with a lastPolicyId is a position among those templates.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Policy> sortedAfter(String sortField, Comparable sortValue, Long lastPolicyId,
+                                                   boolean descending) {
+        return (root, query, cb) -> {
+            if (lastPolicyId == null) {
+                return cb.conjunction();
+            }
+            Path<Long> id = root.get("policyId");
+            Predicate idAfter = descending ? cb.lessThan(id, lastPolicyId) : cb.greaterThan(id, lastPolicyId);
+            if ("policyId".equals(sortField)) {
+                return idAfter;
+            }
+
+            Path<Comparable> field = root.get(sortField);
+            if (sortValue == null) {
+                Predicate nullsAfter = cb.and(cb.isNull(field), idAfter);
+                return descending ? nullsAfter : cb.or(nullsAfter, cb.isNotNull(field));
+            }
+            Predicate beyond = descending ? cb.lessThan(field, sortValue) : cb.greaterThan(field, sortValue);
+            Predicate tie = cb.and(cb.equal(field, sortValue), idAfter);
+            return descending ? cb.or(beyond, tie, cb.isNull(field)) : cb.or(beyond, tie);
+        };
+    }
+}
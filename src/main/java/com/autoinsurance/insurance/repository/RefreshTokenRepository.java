@@ -0,0 +1,33 @@
+package com.autoinsurance.insurance.repository;
+
+import com.autoinsurance.insurance.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    // Redeem or revoke one token: of any number of concurrent callers, exactly one gets 1
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.tokenId = :tokenId")
+    int consume(@Param("tokenId") String tokenId);
+
+    // Revoke every refresh token of the user
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.userId = :userId")
+    int deleteAllForUser(@Param("userId") Long userId);
+
+    // Rows of tokens that were never redeemed (idx_refresh_tokens_user_expires)
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.userId = :userId AND r.expiresAt < :now")
+    int deleteExpiredForUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,9 @@
+package com.autoinsurance.insurance.repository;
+
+/**
+ * Result of the single-statement uniqueness check run before registering a user.
+ */
+public interface RegistrationConflicts {
+    long getUsernameCount();
+    long getEmailCount();
+}
@@ -0,0 +1,9 @@
+package com.autoinsurance.insurance.repository;
+
+/**
+ * EnrollmentHistory keyed by template, one row per template the customer has enrolled in
+ * (PolicyEnrollmentRepository.findHistoryByCustomer).
+ */
+public interface TemplateEnrollmentHistory extends EnrollmentHistory {
+    Long getPolicyTemplateId();
+}
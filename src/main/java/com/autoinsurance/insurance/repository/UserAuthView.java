@@ -0,0 +1,15 @@
+package com.autoinsurance.insurance.repository;
+
+import com.autoinsurance.insurance.model.Role;
+
+/**
+ * Columns needed to authenticate a login - avoids hydrating the full User row.
+ */
+public interface UserAuthView {
+    Long getUserId();
+    String getUsername();
+    String getEmail();
+    String getPassword();
+    Role getRole();
+    int getTokenVersion();
+}
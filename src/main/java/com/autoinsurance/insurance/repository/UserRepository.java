@@ -3,7 +3,11 @@ package com.autoinsurance.insurance.repository;
 import com.autoinsurance.insurance.model.Role;
 import com.autoinsurance.insurance.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,4 +21,35 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     // Find users by role
     List<User> findByRole(Role role);
+
+    // Login lookup: one statement for username or email, auth columns only.
+    // A username may equal another account's email: then the username match wins
+    @Query("SELECT u.userId AS userId, u.username AS username, u.email AS email, u.password AS password, " +
+           "u.role AS role, u.tokenVersion AS tokenVersion " +
+           "FROM User u WHERE u.username = :login OR u.email = :login " +
+           "ORDER BY CASE WHEN u.username = :login THEN 0 ELSE 1 END LIMIT 1")
+    Optional<UserAuthView> findAuthByLogin(@Param("login") String login);
+
+    // Registration uniqueness: username and email checked in one round-trip
+    @Query("SELECT COUNT(CASE WHEN u.username = :username THEN 1 END) AS usernameCount, " +
+           "COUNT(CASE WHEN u.email = :email THEN 1 END) AS emailCount " +
+           "FROM User u WHERE u.username = :username OR u.email = :email")
+    RegistrationConflicts findRegistrationConflicts(@Param("username") String username, @Param("email") String email);
+
+    // Token version lookup for JWT revocation checks
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.userId = :userId")
+    Optional<Integer> findTokenVersionByUserId(@Param("userId") Long userId);
+
+    // Store an upgraded password hash only if the stored one is still oldHash (compare-and-set); returns 0 if it changed
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username AND u.password = :oldHash")
+    int updatePassword(@Param("username") String username, @Param("oldHash") String oldHash,
+                       @Param("password") String password);
+
+    // Invalidate every outstanding token for the user
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.userId = :userId")
+    int incrementTokenVersion(@Param("userId") Long userId);
 }
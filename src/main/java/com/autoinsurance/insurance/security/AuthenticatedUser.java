@@ -0,0 +1,99 @@
+package com.autoinsurance.insurance.security;
+
+import com.autoinsurance.insurance.model.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lightweight principal rebuilt from verified JWT claims, or loaded from the
+ * auth projection at login. Carries only what authentication and authorization need,
+ * so neither path has to load the full User entity.
+ */
+public class AuthenticatedUser implements UserDetails {
+
+    private final Long userId;
+    private final String username;
+    private final Role role;
+    private final int tokenVersion;
+    private final String email;
+    private final String password;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long userId, String username, Role role, int tokenVersion) {
+        this(userId, username, null, null, role, tokenVersion);
+    }
+
+    // Login-time principal, including the stored hash for password verification
+    public AuthenticatedUser(Long userId, String username, String email, String password, Role role, int tokenVersion) {
+        this.userId = userId;
+        this.username = username;
+        this.email = email;
+        this.password = password;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+        // Same authorities as User#getAuthorities: raw role name and ROLE_ prefixed version
+        this.authorities = List.of(
+            new SimpleGrantedAuthority(role.name()),
+            new SimpleGrantedAuthority("ROLE_" + role.name())
+        );
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    /**
+     * Only populated on the login path; null when rebuilt from a token.
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        // Only populated on the login path; never carried in a token
+        return password;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -7,6 +7,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,31 +18,48 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    // Replayed or misused tokens are client-caused: at most one line per reason per interval
+    private static final ThrottledLogger rejectedTokenLog = new ThrottledLogger(logger, 10, TimeUnit.SECONDS);
 
     @Autowired
-    private JwtUtils jwtUtils;
+    private VerifiedTokenCache verifiedTokenCache;
 
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    // Opt-in: reject tokens whose "ver" claim no longer matches users.token_version
+    @Value("${jwt.revocation-check.enabled:false}")
+    private boolean revocationCheckEnabled;
+
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
+            VerifiedTokenCache.VerifiedToken token = jwt != null ? verifiedTokenCache.verify(jwt) : null;
+            if (token != null) {
+                UserDetails userDetails = resolvePrincipal(token);
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(detailsSource.buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e.getMessage());
@@ -50,6 +68,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Stateless path: the principal comes straight from the claims.
+     * Tokens issued before identity claims existed fall back to a user lookup.
+     * Refresh tokens and revoked tokens are rejected from memory, without a DB hit.
+     */
+    private UserDetails resolvePrincipal(VerifiedTokenCache.VerifiedToken token) {
+        if (token.refresh()) {
+            rejectedTokenLog.warn("Rejected refresh token used as access token", "user " + token.subject());
+            return null;
+        }
+
+        if (tokenRevocationStore.isRevoked(token.tokenId())) {
+            rejectedTokenLog.warn("Rejected revoked token", "user " + token.subject());
+            return null;
+        }
+
+        AuthenticatedUser principal = token.principal();
+        if (principal == null) {
+            return userDetailsService.loadUserByUsername(token.subject());
+        }
+
+        if (revocationCheckEnabled && !tokenVersionCache.isCurrent(principal.getUserId(), principal.getTokenVersion())) {
+            rejectedTokenLog.warn("Rejected token with outdated token version", "user " + principal.getUsername());
+            return null;
+        }
+
+        return principal;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
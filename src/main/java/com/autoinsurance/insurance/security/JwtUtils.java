@@ -1,7 +1,11 @@
 package com.autoinsurance.insurance.security;
 
+import com.autoinsurance.insurance.model.Role;
+import com.autoinsurance.insurance.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,61 +15,168 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
+    // Bad tokens are client noise: one WARN per reason every 10s, with a suppressed count
+    private static final ThrottledLogger invalidTokenLog = new ThrottledLogger(logger, 10, TimeUnit.SECONDS);
+
+    // Custom claim names carried in every access token
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    // "access" or "refresh"; refresh tokens are only accepted by /api/auth/refresh
+    public static final String CLAIM_TOKEN_TYPE = "typ";
+
+    public static final String TOKEN_TYPE_ACCESS = "access";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
 
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    // Access token lifetime
     @Value("${jwt.expiration}")
-    private int jwtExpirationMs;
+    private long jwtExpirationMs;
+
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long jwtRefreshExpirationMs;
+
+    // Built once from jwt.secret; both are immutable and thread-safe
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
 
     public String generateJwtToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        
-        return Jwts.builder()
-                .setSubject(userPrincipal.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+        return generateAccessToken((UserDetails) authentication.getPrincipal());
+    }
+
+    /**
+     * Short-lived token sent on every API request.
+     */
+    public String generateAccessToken(UserDetails userPrincipal) {
+        return buildToken(userPrincipal, TOKEN_TYPE_ACCESS, UUID.randomUUID().toString(), jwtExpirationMs);
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Long-lived token accepted only by the refresh endpoint; each use rotates it.
+     * Issued through RefreshTokenStore, which records the token id.
+     */
+    public String generateRefreshToken(UserDetails userPrincipal, String tokenId) {
+        return buildToken(userPrincipal, TOKEN_TYPE_REFRESH, tokenId, jwtRefreshExpirationMs);
     }
 
-    public String getUsernameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    public long getRefreshExpirationMs() {
+        return jwtRefreshExpirationMs;
     }
 
-    public boolean validateJwtToken(String authToken) {
+    private String buildToken(UserDetails userPrincipal, String tokenType, String tokenId, long lifetimeMs) {
+        JwtBuilder builder = Jwts.builder()
+                .setSubject(userPrincipal.getUsername())
+                // Unique id so a single token can be revoked
+                .setId(tokenId)
+                .claim(CLAIM_TOKEN_TYPE, tokenType);
+
+        // Embed identity so the filter can authenticate without a DB lookup
+        if (userPrincipal instanceof User user) {
+            builder.claim(CLAIM_USER_ID, user.getUserId())
+                    .claim(CLAIM_ROLE, user.getRole().name())
+                    .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        } else if (userPrincipal instanceof AuthenticatedUser user) {
+            builder.claim(CLAIM_USER_ID, user.getUserId())
+                    .claim(CLAIM_ROLE, user.getRole().name())
+                    .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        }
+
+        long now = System.currentTimeMillis();
+        return builder
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + lifetimeMs))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Tokens issued before the type claim existed are treated as access tokens.
+     */
+    public boolean isRefreshToken(Claims claims) {
+        return TOKEN_TYPE_REFRESH.equals(claims.get(CLAIM_TOKEN_TYPE));
+    }
+
+    /**
+     * Verify the token signature and expiry and return its claims.
+     * The token is parsed exactly once; returns null if it is not valid.
+     */
+    public Claims parseAndValidate(String authToken) {
+        // Reject obvious garbage before jjwt allocates a parser exception for it
+        if (!isCompactJws(authToken)) {
+            invalidTokenLog.warn("Invalid JWT token", "not a compact JWS");
+            return null;
+        }
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (SecurityException e) {
-            logger.error("Invalid JWT signature: {}", e.getMessage());
+            invalidTokenLog.warn("Invalid JWT signature", e.getMessage());
         } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
+            invalidTokenLog.warn("Invalid JWT token", e.getMessage());
         } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
+            invalidTokenLog.warn("JWT token is expired", e.getMessage());
         } catch (UnsupportedJwtException e) {
-            logger.error("JWT token is unsupported: {}", e.getMessage());
+            invalidTokenLog.warn("JWT token is unsupported", e.getMessage());
         } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
+            invalidTokenLog.warn("JWT claims string is empty", e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    // Three non-empty base64url segments separated by dots
+    private static boolean isCompactJws(String token) {
+        if (token == null || token.isEmpty()) {
+            return false;
+        }
+        int dots = 0;
+        int segmentLength = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (segmentLength == 0 || ++dots > 2) {
+                    return false;
+                }
+                segmentLength = 0;
+            } else if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_') {
+                segmentLength++;
+            } else {
+                return false;
+            }
+        }
+        return dots == 2 && segmentLength > 0;
+    }
+
+    /**
+     * Build the request principal straight from verified claims.
+     * Returns null for tokens issued before identity claims were added.
+     */
+    public AuthenticatedUser toPrincipal(Claims claims) {
+        Object userId = claims.get(CLAIM_USER_ID);
+        Object role = claims.get(CLAIM_ROLE);
+        if (!(userId instanceof Number) || role == null) {
+            return null;
+        }
+        Object version = claims.get(CLAIM_TOKEN_VERSION);
+        return new AuthenticatedUser(
+                ((Number) userId).longValue(),
+                claims.getSubject(),
+                Role.valueOf(role.toString()),
+                version instanceof Number ? ((Number) version).intValue() : 0);
     }
 }
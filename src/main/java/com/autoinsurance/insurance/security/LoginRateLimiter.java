@@ -0,0 +1,98 @@
+package com.autoinsurance.insurance.security;
+
+import com.autoinsurance.insurance.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket throttle for login attempts, checked before any password hashing.
+ * Two independent limits apply: per client IP (one source trying many accounts) and
+ * per login name (many sources trying one account). Each bucket is a single AtomicLong
+ * updated lock-free (GCRA form of the token bucket). Idle buckets are evicted once they
+ * would have refilled completely, so memory is bounded by recent attackers, not by history.
+ * The client IP is the servlet remote address, which server.forward-headers-strategy=native
+ * resolves from X-Forwarded-For when the request comes through a trusted proxy.
+ *
+ * Metrics: auth.login.throttled (counter, tagged by scope=ip/username),
+ * auth.login.buckets (gauge, tagged by scope).
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final Limit perIp;
+    private final Limit perUsername;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${security.login-rate-limit.per-ip.capacity:30}") int ipCapacity,
+                            @Value("${security.login-rate-limit.per-ip.per-minute:30}") int ipPerMinute,
+                            @Value("${security.login-rate-limit.per-username.capacity:10}") int usernameCapacity,
+                            @Value("${security.login-rate-limit.per-username.per-minute:5}") int usernamePerMinute,
+                            @Value("${security.login-rate-limit.maximum-keys:100000}") long maximumKeys) {
+        this.perIp = new Limit("ip", ipCapacity, ipPerMinute, maximumKeys, meterRegistry);
+        this.perUsername = new Limit("username", usernameCapacity, usernamePerMinute, maximumKeys, meterRegistry);
+    }
+
+    /**
+     * Take one attempt from both buckets, or throw TooManyRequestsException with the wait time.
+     * The IP bucket is checked first so a throttled source cannot drain a victim's username bucket.
+     */
+    public void acquire(String login, String clientIp) {
+        perIp.acquire(clientIp != null ? clientIp : "unknown");
+        if (login != null) {
+            perUsername.acquire(login.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static final class Limit {
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+        private final Cache<String, AtomicLong> buckets;
+        private final Counter throttled;
+
+        Limit(String scope, int capacity, int perMinute, long maximumKeys, MeterRegistry meterRegistry) {
+            this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / perMinute;
+            this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+            // A bucket untouched for a full refill is indistinguishable from a new one
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maximumKeys)
+                    .expireAfterAccess(Duration.ofNanos(emissionIntervalNanos * capacity))
+                    .build();
+            this.throttled = Counter.builder("auth.login.throttled")
+                    .tag("scope", scope)
+                    .description("Login attempts rejected by the rate limiter")
+                    .register(meterRegistry);
+            Gauge.builder("auth.login.buckets", buckets, Cache::estimatedSize)
+                    .tag("scope", scope)
+                    .description("Login rate-limit buckets currently tracked")
+                    .register(meterRegistry);
+        }
+
+        void acquire(String key) {
+            AtomicLong theoreticalArrival = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+            while (true) {
+                long now = System.nanoTime();
+                long tat = theoreticalArrival.get();
+                long start = tat == Long.MIN_VALUE || tat - now < 0 ? now : tat;
+                long waitNanos = start - now - burstToleranceNanos;
+                if (waitNanos > 0) {
+                    throttled.increment();
+                    long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+                    throw new TooManyRequestsException("Too many login attempts. Please retry later.", retryAfterSeconds);
+                }
+                if (theoreticalArrival.compareAndSet(tat, start + emissionIntervalNanos)) {
+                    return;
+                }
+            }
+        }
+    }
+}
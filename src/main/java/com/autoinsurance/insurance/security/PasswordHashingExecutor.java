@@ -0,0 +1,123 @@
+package com.autoinsurance.insurance.security;
+
+import com.autoinsurance.insurance.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Size-limited worker pool for password hashing and verification.
+ * Keeps BCrypt/Argon2 work off the Tomcat request threads so a login burst cannot
+ * starve other endpoints. When the queue is full the caller gets an immediate 503
+ * instead of waiting behind the backlog.
+ *
+ * Metrics: auth.password.queue.wait and auth.password.hash (timers, tagged by operation),
+ * auth.password.queue.depth (gauge).
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final MeterRegistry meterRegistry;
+    // Per operation ("login", "register"): built once, not on every call
+    private final ConcurrentMap<String, OperationTimers> timers = new ConcurrentHashMap<>();
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Value("${security.password.hashing.threads:0}") int threads,
+                                   @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${security.password.hashing.timeout-ms:5000}") long timeoutMs) {
+        // 0 = one thread per core; hashing is pure CPU work
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run a hashing task on the pool and wait for its result.
+     * Throws ServiceUnavailableException if the pool is saturated or the task times out.
+     */
+    public <T> T execute(String operation, Supplier<T> task) {
+        OperationTimers operationTimers = timers.computeIfAbsent(operation, this::registerTimers);
+        Timer queueWait = operationTimers.queueWait();
+        Timer hashTime = operationTimers.hash();
+
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.get();
+                } finally {
+                    hashTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("auth.password.rejected", "operation", operation).increment();
+            throw new ServiceUnavailableException("Too many concurrent login requests. Please retry shortly.", 1);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceUnavailableException("Login request timed out. Please retry shortly.", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Login request was interrupted. Please retry.", 1);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(cause.getMessage(), cause);
+        }
+    }
+
+    private OperationTimers registerTimers(String operation) {
+        return new OperationTimers(
+                Timer.builder("auth.password.queue.wait").tag("operation", operation).register(meterRegistry),
+                Timer.builder("auth.password.hash").tag("operation", operation).register(meterRegistry));
+    }
+
+    private record OperationTimers(Timer queueWait, Timer hash) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,59 @@
+package com.autoinsurance.insurance.security;
+
+import com.autoinsurance.insurance.model.RefreshToken;
+import com.autoinsurance.insurance.repository.RefreshTokenRepository;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Refresh tokens that can still be redeemed, one refresh_tokens row each, so single use and
+ * reuse detection hold across nodes and restarts (TokenRevocationStore is per node and in memory).
+ * Redeeming, logging out and revoking all delete rows; whichever DELETE removes the row wins.
+ * Refresh is rare, so this is one small write per login and per refresh.
+ */
+@Component
+public class RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtUtils jwtUtils;
+
+    public RefreshTokenStore(RefreshTokenRepository refreshTokenRepository, JwtUtils jwtUtils) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtUtils = jwtUtils;
+    }
+
+    /**
+     * Record a new refresh token for the user and return it, signed.
+     */
+    public String issue(UserDetails user, Long userId) {
+        String tokenId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        // Tokens that expired unused are not deleted anywhere else
+        refreshTokenRepository.deleteExpiredForUser(userId, now);
+        refreshTokenRepository.save(new RefreshToken(tokenId, userId,
+                now.plus(jwtUtils.getRefreshExpirationMs(), ChronoUnit.MILLIS)));
+        return jwtUtils.generateRefreshToken(user, tokenId);
+    }
+
+    /**
+     * Use up the token. Returns false if it was already redeemed or revoked, here or on another node.
+     */
+    public boolean redeem(Claims claims) {
+        return claims.getId() != null && refreshTokenRepository.consume(claims.getId()) == 1;
+    }
+
+    public void revoke(Claims claims) {
+        if (claims.getId() != null) {
+            refreshTokenRepository.consume(claims.getId());
+        }
+    }
+
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.deleteAllForUser(userId);
+    }
+}
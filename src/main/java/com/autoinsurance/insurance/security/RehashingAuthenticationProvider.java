@@ -0,0 +1,74 @@
+package com.autoinsurance.insurance.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * DaoAuthenticationProvider that checks passwords on the PasswordHashingExecutor pool and upgrades
+ * outdated password hashes off the login path.
+ * The user lookup (a DB round-trip on a cache miss) stays on the caller thread; only the
+ * password check goes to the pool, so DB latency never holds a hashing worker.
+ * The stock provider re-encodes synchronously, adding a second full hash to the login
+ * that triggered it; here the new hash is computed and stored on a background executor.
+ */
+public class RehashingAuthenticationProvider extends DaoAuthenticationProvider {
+    private static final Logger logger = LoggerFactory.getLogger(RehashingAuthenticationProvider.class);
+
+    private final UserDetailsPasswordService passwordService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final Executor rehashExecutor;
+
+    public RehashingAuthenticationProvider(UserDetailsPasswordService passwordService,
+                                           PasswordHashingExecutor passwordHashingExecutor, Executor rehashExecutor) {
+        this.passwordService = passwordService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.rehashExecutor = rehashExecutor;
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails, UsernamePasswordAuthenticationToken authentication) {
+        passwordHashingExecutor.execute("login", () -> {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+            return null;
+        });
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication, UserDetails user) {
+        PasswordEncoder encoder = getPasswordEncoder();
+        if (user.getPassword() != null && encoder.upgradeEncoding(user.getPassword())) {
+            // Capture now: credentials are erased once authentication completes
+            String presentedPassword = authentication.getCredentials().toString();
+            try {
+                rehashExecutor.execute(() -> rehash(user, presentedPassword, encoder));
+            } catch (RejectedExecutionException e) {
+                // Backlog full; the next successful login will try again
+                logger.debug("Skipped password rehash for user: {}", user.getUsername());
+            }
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+
+    private void rehash(UserDetails user, String presentedPassword, PasswordEncoder encoder) {
+        try {
+            String newHash = encoder.encode(presentedPassword);
+            // Compare-and-set on the old hash: a password changed since this login is left alone
+            if (newHash.equals(passwordService.updatePassword(user, newHash).getPassword())) {
+                logger.info("Upgraded password hash for user: {}", user.getUsername());
+            } else {
+                logger.debug("Skipped password rehash for user {}: password changed meanwhile", user.getUsername());
+            }
+        } catch (Exception e) {
+            logger.warn("Password rehash failed for user {}: {}", user.getUsername(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.autoinsurance.insurance.security;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs at most one WARN per reason per interval and reports how many were suppressed in between.
+ * Used for client-caused failures (bad tokens) so scanner traffic cannot flood the log.
+ */
+class ThrottledLogger {
+
+    private final Logger logger;
+    private final long intervalNanos;
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    ThrottledLogger(Logger logger, long interval, TimeUnit unit) {
+        this.logger = logger;
+        this.intervalNanos = unit.toNanos(interval);
+    }
+
+    void warn(String reason, String detail) {
+        Window window = windows.computeIfAbsent(reason, key -> new Window(System.nanoTime() - intervalNanos));
+        long now = System.nanoTime();
+        long last = window.lastLogged.get();
+        if (now - last >= intervalNanos && window.lastLogged.compareAndSet(last, now)) {
+            long suppressed = window.suppressed.sumThenReset();
+            if (suppressed > 0) {
+                logger.warn("{}: {} ({} similar messages suppressed)", reason, detail, suppressed);
+            } else {
+                logger.warn("{}: {}", reason, detail);
+            }
+        } else {
+            window.suppressed.increment();
+        }
+    }
+
+    private static final class Window {
+        private final AtomicLong lastLogged;
+        private final LongAdder suppressed = new LongAdder();
+
+        private Window(long lastLogged) {
+            this.lastLogged = new AtomicLong(lastLogged);
+        }
+    }
+}
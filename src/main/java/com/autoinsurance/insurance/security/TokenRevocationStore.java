@@ -0,0 +1,89 @@
+package com.autoinsurance.insurance.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory set of revoked access-token ids (jti), checked by JwtAuthenticationFilter on every request.
+ * Each id is stored as a 64-bit hash and kept only until the token itself would have expired,
+ * so the set never holds more than the tokens revoked within one access-token lifetime.
+ * Revocations are per node and are lost on restart; bump users.token_version
+ * (UserService#revokeTokens) for revocation that must survive either.
+ * Refresh tokens are tracked in the database instead, see RefreshTokenStore.
+ */
+@Component
+public class TokenRevocationStore {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final Cache<Long, Long> revoked;
+
+    public TokenRevocationStore(MeterRegistry meterRegistry) {
+        // No size bound on purpose: evicting an entry early would un-revoke a live token
+        this.revoked = Caffeine.newBuilder()
+                .expireAfter(new Expiry<Long, Long>() {
+                    @Override
+                    public long expireAfterCreate(Long key, Long expiresAtMs, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAtMs - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long key, Long expiresAtMs, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, expiresAtMs, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long key, Long expiresAtMs, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        Gauge.builder("auth.tokens.revoked", revoked, Cache::estimatedSize)
+                .description("Revoked tokens that have not expired yet")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Revoke the token until its expiry. Tokens without a jti or expiry cannot be revoked individually.
+     */
+    public void revoke(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (claims.getId() == null || expiration == null || expiration.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        revoked.put(hash(claims.getId()), expiration.getTime());
+    }
+
+    public boolean isRevoked(Claims claims) {
+        return isRevoked(claims.getId());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.getIfPresent(hash(tokenId)) != null;
+    }
+
+    // First 8 bytes of SHA-256: a fixed-size key instead of a 36-char UUID string
+    private static long hash(String tokenId) {
+        byte[] digest = SHA_256.get().digest(tokenId.getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.wrap(digest).getLong();
+    }
+}
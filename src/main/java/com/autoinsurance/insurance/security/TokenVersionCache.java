@@ -0,0 +1,54 @@
+package com.autoinsurance.insurance.security;
+
+import com.autoinsurance.insurance.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cached view of users.token_version used for opt-in token revocation.
+ * A token is accepted only while its "ver" claim matches the stored version;
+ * bumping the column (see UserService#revokeTokens) invalidates all outstanding tokens.
+ * Size-bounded; entries expire after jwt.revocation-check.cache-ttl-ms, so a bump on another
+ * node takes effect within that window.
+ * Hit and miss counts are published as cache.* metrics (cache=users.tokenVersion).
+ */
+@Component
+public class TokenVersionCache {
+
+    // Stored for users that no longer exist, so their tokens are rejected
+    private static final int DELETED = -1;
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Integer> versions;
+
+    public TokenVersionCache(UserRepository userRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${jwt.revocation-check.cache-maximum-size:10000}") long maximumSize,
+                             @Value("${jwt.revocation-check.cache-ttl-ms:30000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "users.tokenVersion");
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        return currentVersion(userId) == tokenVersion;
+    }
+
+    public int currentVersion(Long userId) {
+        return versions.get(userId, id -> userRepository.findTokenVersionByUserId(id).orElse(DELETED));
+    }
+
+    public void invalidate(Long userId) {
+        versions.invalidate(userId);
+    }
+}
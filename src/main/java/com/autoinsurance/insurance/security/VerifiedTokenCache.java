@@ -0,0 +1,120 @@
+package com.autoinsurance.insurance.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size-bounded LRU of tokens that already passed signature and expiry checks.
+ * A client sends the same access token on every request until it expires, so repeat
+ * tokens skip base64/JSON parsing and HMAC verification. Entries are keyed by the
+ * SHA-256 of the token (never the token itself) and expire together with the token.
+ * Tokens that fail verification go to a separate, short-lived cache, so a client or scanner
+ * replaying the same expired or forged token is turned away without re-parsing it, and
+ * cannot push valid entries out. Revocation is still checked on every request.
+ * Hit and miss counts are published as cache.* metrics (cache=jwt.verified / jwt.rejected).
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final JwtUtils jwtUtils;
+    private final Cache<TokenKey, VerifiedToken> verified;
+    private final Cache<TokenKey, Boolean> rejected;
+
+    public VerifiedTokenCache(JwtUtils jwtUtils,
+                              MeterRegistry meterRegistry,
+                              @Value("${jwt.verified-cache.maximum-size:10000}") long maximumSize) {
+        this.jwtUtils = jwtUtils;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<TokenKey, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(TokenKey key, VerifiedToken token, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.expiresAtMs() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenKey key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenKey key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        this.rejected = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt.verified");
+        CaffeineCacheMetrics.monitor(meterRegistry, rejected, "jwt.rejected");
+    }
+
+    /**
+     * Verified view of the token, or null if the signature or expiry check fails.
+     */
+    public VerifiedToken verify(String token) {
+        TokenKey key = TokenKey.of(token);
+        VerifiedToken cached = verified.getIfPresent(key);
+        if (cached != null && cached.expiresAtMs() > System.currentTimeMillis()) {
+            return cached;
+        }
+        if (rejected.getIfPresent(key) != null) {
+            return null;
+        }
+
+        Claims claims = jwtUtils.parseAndValidate(token);
+        if (claims == null) {
+            rejected.put(key, Boolean.TRUE);
+            return null;
+        }
+        VerifiedToken result = new VerifiedToken(
+                claims.getSubject(),
+                claims.getId(),
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE,
+                jwtUtils.isRefreshToken(claims),
+                jwtUtils.toPrincipal(claims));
+        verified.put(key, result);
+        return result;
+    }
+
+    /**
+     * What the filter needs from a verified token. principal is null for tokens
+     * issued before identity claims were added.
+     */
+    public record VerifiedToken(String subject, String tokenId, long expiresAtMs, boolean refresh,
+                                AuthenticatedUser principal) {
+    }
+
+    // 256-bit digest as four longs: fixed 48-byte key, cheap equals/hashCode
+    private record TokenKey(long a, long b, long c, long d) {
+        static TokenKey of(String token) {
+            ByteBuffer digest = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+            return new TokenKey(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.autoinsurance.insurance.service;
+
+import com.autoinsurance.insurance.model.PolicyEnrollment;
+import com.autoinsurance.insurance.repository.EnrollmentPair;
+import com.autoinsurance.insurance.repository.PolicyEnrollmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * One-off fill of active_enrollment_key for PENDING and APPROVED enrollments written before the
+ * column existed; until then uk_policy_enrollments_active_key does not cover those pairs.
+ * Runs in the background once the application is ready, like VehicleIdentityBackfill: id order,
+ * one short transaction per batch, only the key column written. Where a customer already had
+ * several active enrollments for one template, the oldest gets the key and the others are
+ * logged and left without one; they are reported again on every start until an admin declines
+ * or withdraws them.
+ */
+@Component
+public class ActiveEnrollmentKeyBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveEnrollmentKeyBackfill.class);
+
+    private final PolicyEnrollmentRepository enrollmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final int batchSize;
+
+    public ActiveEnrollmentKeyBackfill(PolicyEnrollmentRepository enrollmentRepository,
+                                       TransactionTemplate transactionTemplate,
+                                       @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                       @Value("${enrollment.active-key.backfill-batch-size:500}") int batchSize) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        taskExecutor.execute(this::backfill);
+    }
+
+    /**
+     * Fill every remaining row; returns the number of rows given a key.
+     */
+    public int backfill() {
+        long afterId = 0;
+        int filled = 0;
+        try {
+            while (true) {
+                List<EnrollmentPair> batch =
+                        enrollmentRepository.findActiveWithoutEnrollmentKey(afterId, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                afterId = batch.get(batch.size() - 1).getEnrollmentId();
+                filled += transactionTemplate.execute(status -> fill(batch));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // A new enrollment for the same pair, or another node, got there first; picked up on the next start
+            logger.warn("Active enrollment key backfill stopped after {} rows: {}", filled, e.getMostSpecificCause().getMessage());
+            return filled;
+        }
+        if (filled > 0) {
+            logger.info("Stored active enrollment keys for {} existing enrollments", filled);
+        }
+        return filled;
+    }
+
+    private int fill(List<EnrollmentPair> batch) {
+        int filled = 0;
+        for (EnrollmentPair row : batch) {
+            String key = PolicyEnrollment.activeEnrollmentKey(row.getCustomerId(), row.getPolicyTemplateId());
+            // Bulk UPDATEs run immediately, so this also sees keys set earlier in the batch
+            if (enrollmentRepository.existsByActiveEnrollmentKey(key)) {
+                logger.warn("Enrollment {} is a second active enrollment of customer {} for template {}; "
+                        + "left without active_enrollment_key", row.getEnrollmentId(), row.getCustomerId(),
+                        row.getPolicyTemplateId());
+            } else {
+                enrollmentRepository.updateActiveEnrollmentKey(row.getEnrollmentId(), key);
+                filled++;
+            }
+        }
+        return filled;
+    }
+}
@@ -3,19 +3,26 @@ package com.autoinsurance.insurance.service;
 import com.autoinsurance.insurance.dto.JwtResponse;
 import com.autoinsurance.insurance.dto.LoginRequest;
 import com.autoinsurance.insurance.dto.RegisterRequest;
+import com.autoinsurance.insurance.exception.ServiceUnavailableException;
 import com.autoinsurance.insurance.model.Role;
 import com.autoinsurance.insurance.model.User;
+import com.autoinsurance.insurance.repository.RegistrationConflicts;
 import com.autoinsurance.insurance.repository.UserRepository;
+import com.autoinsurance.insurance.security.AuthenticatedUser;
 import com.autoinsurance.insurance.security.JwtUtils;
+import com.autoinsurance.insurance.security.PasswordHashingExecutor;
+import com.autoinsurance.insurance.security.RefreshTokenStore;
+import com.autoinsurance.insurance.security.TokenRevocationStore;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
 
 @Service
 public class AuthService {
@@ -31,66 +38,129 @@ public class AuthService {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private UserService userService;
+
     public JwtResponse authenticateUser(LoginRequest loginRequest) {
         try {
-            String usernameOrEmail = loginRequest.getUsernameOrEmail();
-            
-            // Find user by username or email
-            User userDetails = findUserByUsernameOrEmail(usernameOrEmail)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + usernameOrEmail));
-            
-            // Use the actual username for authentication (Spring Security expects username)
+            // UserDetailsServiceImpl resolves username or email in a single lookup on this thread;
+            // RehashingAuthenticationProvider runs only the password check on the hashing pool
             Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(userDetails.getUsername(), loginRequest.getPassword()));
+                    new UsernamePasswordAuthenticationToken(loginRequest.getUsernameOrEmail(), loginRequest.getPassword()));
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
             String jwt = jwtUtils.generateJwtToken(authentication);
-            
+
+            AuthenticatedUser userDetails = (AuthenticatedUser) authentication.getPrincipal();
             return new JwtResponse(
                     jwt, 
+                    refreshTokenStore.issue(userDetails, userDetails.getUserId()),
                     userDetails.getUserId(), 
                     userDetails.getUsername(), 
                     userDetails.getEmail(), 
                     userDetails.getRole());
+        } catch (ServiceUnavailableException e) {
+            // Saturated hashing pool: surface as 503 rather than a failed login
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Authentication failed: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Exchange a refresh token for a new access/refresh pair. The presented token is
+     * redeemed in the database, so each refresh token can be used once on any node;
+     * presenting it again is treated as token theft and revokes every token of that user.
+     */
+    public JwtResponse refreshToken(String refreshToken) {
+        Claims claims = jwtUtils.parseAndValidate(refreshToken);
+        if (claims == null || !jwtUtils.isRefreshToken(claims)) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+
+        AuthenticatedUser principal = jwtUtils.toPrincipal(claims);
+        if (principal == null) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+
+        if (!refreshTokenStore.redeem(claims)) {
+            userService.revokeTokens(principal.getUserId());
+            throw new BadCredentialsException("Refresh token has already been used");
+        }
+
+        // Re-read the user so role changes and revocations since the last refresh apply
+        User user = userCache.findByUsername(principal.getUsername())
+                .filter(u -> u.getUserId().equals(principal.getUserId()))
+                .filter(u -> u.getTokenVersion() == principal.getTokenVersion())
+                .orElseThrow(() -> new BadCredentialsException("Refresh token has been revoked"));
+
+        return new JwtResponse(
+                jwtUtils.generateAccessToken(user),
+                refreshTokenStore.issue(user, user.getUserId()),
+                user.getUserId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getRole());
+    }
+
+    /**
+     * Revoke the given tokens until they expire. Invalid or missing tokens are ignored.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        for (String token : new String[] {accessToken, refreshToken}) {
+            Claims claims = token != null ? jwtUtils.parseAndValidate(token) : null;
+            if (claims == null) {
+                continue;
+            }
+            if (jwtUtils.isRefreshToken(claims)) {
+                refreshTokenStore.revoke(claims);
+            } else {
+                tokenRevocationStore.revoke(claims);
+            }
+        }
+    }
+
     public User registerUser(RegisterRequest registerRequest) {
-        // Check if username exists
-        if (userRepository.existsByUsername(registerRequest.getUsername())) {
+        // Check username and email uniqueness in one query
+        RegistrationConflicts conflicts = userRepository.findRegistrationConflicts(
+                registerRequest.getUsername(), registerRequest.getEmail());
+
+        if (conflicts.getUsernameCount() > 0) {
             throw new RuntimeException("Username is already taken!");
         }
 
-        // Check if email exists
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
+        if (conflicts.getEmailCount() > 0) {
             throw new RuntimeException("Email is already in use!");
         }
 
+        String encodedPassword = passwordHashingExecutor.execute("register",
+                () -> passwordEncoder.encode(registerRequest.getPassword()));
+
         // Create new user with all fields
         User user = new User(
                 registerRequest.getFirstName(),
                 registerRequest.getLastName(),
                 registerRequest.getUsername(),
-                passwordEncoder.encode(registerRequest.getPassword()),
+                encodedPassword,
                 registerRequest.getEmail(),
                 registerRequest.getRole() != null ? registerRequest.getRole() : Role.CUSTOMER,
                 registerRequest.getAge(),
                 registerRequest.getIdProofFilePath());
 
-        return userRepository.save(user);
-    }
-
-    /**
-     * Find user by username or email
-     */
-    private Optional<User> findUserByUsernameOrEmail(String usernameOrEmail) {
-        // Check if input looks like an email (contains @)
-        if (usernameOrEmail.contains("@")) {
-            return userRepository.findByEmail(usernameOrEmail);
-        } else {
-            return userRepository.findByUsername(usernameOrEmail);
-        }
+        User savedUser = userRepository.save(user);
+        userCache.invalidate(savedUser.getUsername(), savedUser.getEmail());
+        return savedUser;
     }
 }
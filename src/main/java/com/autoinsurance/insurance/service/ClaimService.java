@@ -9,13 +9,11 @@ import com.autoinsurance.insurance.model.*;
 import com.autoinsurance.insurance.model.PolicyEnrollment.EnrollmentStatus;
 import com.autoinsurance.insurance.repository.ClaimRepository;
 import com.autoinsurance.insurance.repository.PolicyEnrollmentRepository;
-import com.autoinsurance.insurance.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.security.Principal;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,15 +27,10 @@ public class ClaimService {
     @Autowired
     private PolicyEnrollmentRepository policyEnrollmentRepository;
 
-    @Autowired
-    private UserRepository userRepository;
-
     /**
      * Submit a new claim (CUSTOMER only)
      */
-    public ClaimResponse submitClaim(ClaimRequest claimRequest, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-
+    public ClaimResponse submitClaim(ClaimRequest claimRequest, User currentUser) {
         // Only customers can submit claims
         if (currentUser.getRole() != Role.CUSTOMER) {
             throw new AccessDeniedException("Only customers can submit claims");
@@ -76,8 +69,7 @@ public class ClaimService {
     /**
      * Get claim details by ID with role-based access control
      */
-    public ClaimResponse getClaimDetails(Long claimId, Principal principal) {
-        User currentUser = getCurrentUser(principal);
+    public ClaimResponse getClaimDetails(Long claimId, User currentUser) {
         Claim claim = claimRepository.findById(claimId)
                 .orElseThrow(() -> new ResourceNotFoundException("Claim not found"));
 
@@ -102,8 +94,7 @@ public class ClaimService {
     /**
      * Update claim status (ADMIN only)
      */
-    public ClaimResponse updateClaimStatus(Long claimId, ClaimUpdateRequest updateRequest, Principal principal) {
-        User currentUser = getCurrentUser(principal);
+    public ClaimResponse updateClaimStatus(Long claimId, ClaimUpdateRequest updateRequest, User currentUser) {
         Claim claim = claimRepository.findById(claimId)
                 .orElseThrow(() -> new ResourceNotFoundException("Claim not found"));
 
@@ -123,8 +114,7 @@ public class ClaimService {
     /**
      * Get all claims with role-based filtering
      */
-    public List<ClaimResponse> getAllClaims(Principal principal) {
-        User currentUser = getCurrentUser(principal);
+    public List<ClaimResponse> getAllClaims(User currentUser) {
         List<Claim> claims;
 
         switch (currentUser.getRole()) {
@@ -148,9 +138,7 @@ public class ClaimService {
     /**
      * Get claims by status (ADMIN only)
      */
-    public List<ClaimResponse> getClaimsByStatus(ClaimStatus status, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-
+    public List<ClaimResponse> getClaimsByStatus(ClaimStatus status, User currentUser) {
         // Only ADMIN can filter by status
         if (currentUser.getRole() != Role.ADMIN) {
             throw new AccessDeniedException("Only admins can filter claims by status");
@@ -183,12 +171,4 @@ public class ClaimService {
                 claim.getAdminNotes()
         );
     }
-
-    /**
-     * Get current user from Principal
-     */
-    private User getCurrentUser(Principal principal) {
-        return userRepository.findByUsername(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
 }
@@ -0,0 +1,352 @@
+package com.autoinsurance.insurance.service;
+
+import com.autoinsurance.insurance.dto.PolicyImportResponse;
+import com.autoinsurance.insurance.dto.PolicyRequest;
+import com.autoinsurance.insurance.dto.PolicyResponse;
+import com.autoinsurance.insurance.exception.AccessDeniedException;
+import com.autoinsurance.insurance.model.Policy;
+import com.autoinsurance.insurance.model.Role;
+import com.autoinsurance.insurance.model.User;
+import com.autoinsurance.insurance.repository.PolicyRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import and export of policy templates.
+ * Imports are read line by line (CSV with a header row, or NDJSON), validated with the
+ * PolicyRequest constraints and inserted in JDBC batches, so memory use does not grow with
+ * the file and each batch is one round-trip (a multi-row INSERT with rewriteBatchedStatements).
+ * Invalid rows are skipped and reported; valid rows are committed together.
+ *
+ * policy_id stays AUTO_INCREMENT: MySQL has no sequences, and switching the entity to a
+ * table-emulated sequence would collide with ids already issued. Hibernate cannot batch
+ * IDENTITY inserts, so the import writes through JdbcTemplate instead of the repository.
+ */
+@Service
+public class PolicyBulkService {
+
+    // Same order in the CSV header, the export and the INSERT
+    private static final List<String> CSV_COLUMNS = List.of("policyNumber", "vehicleType", "coverageAmount",
+            "coverageType", "premiumAmount", "startDate", "endDate", "policyStatus");
+
+    private static final String INSERT_SQL = "INSERT INTO policies (policy_number, vehicle_type, coverage_amount, "
+            + "coverage_type, premium_amount, start_date, end_date, policy_status, archived) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, false)";
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PolicyRepository policyRepository;
+
+    @Autowired
+    private PolicyCatalogCache policyCatalogCache;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${policy.import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Import policy templates from CSV (csv = true) or NDJSON - ADMIN only
+     */
+    @Transactional
+    public PolicyImportResponse importPolicies(InputStream input, boolean csv, User currentUser) throws IOException {
+        if (currentUser.getRole() != Role.ADMIN) {
+            throw new AccessDeniedException("Only admins can import policy templates");
+        }
+
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        if (csv) {
+            readCsv(reader, run);
+        } else {
+            readNdjson(reader, run);
+        }
+        run.flush();
+
+        if (run.imported > 0) {
+            // Rows were written behind Hibernate's back
+            policyCatalogCache.invalidateAfterBulkWrite();
+        }
+        return new PolicyImportResponse(run.imported, run.rejected, run.errors);
+    }
+
+    /**
+     * Whole catalog as CSV or NDJSON, written row by row to the response.
+     * Served from the in-memory catalog, so an export does not touch the database.
+     */
+    public StreamingResponseBody exportPolicies(boolean csv) {
+        List<PolicyResponse> catalog = policyCatalogCache.findAll();
+        if (csv) {
+            return out -> {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                writer.write("policyId," + String.join(",", CSV_COLUMNS) + "\n");
+                for (PolicyResponse policy : catalog) {
+                    writer.write(String.valueOf(policy.getPolicyId()));
+                    for (Object value : new Object[] {policy.getPolicyNumber(), policy.getVehicleType(),
+                            policy.getCoverageAmount(), policy.getCoverageType(), policy.getPremiumAmount(),
+                            policy.getStartDate(), policy.getEndDate(), policy.getPolicyStatus()}) {
+                        writer.write(',');
+                        writer.write(csvField(value));
+                    }
+                    writer.write('\n');
+                }
+                writer.flush();
+            };
+        }
+        // One flush at the end instead of one per row
+        ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                generator.setRootValueSeparator(null);
+                for (PolicyResponse policy : catalog) {
+                    rowWriter.writeValue(generator, policy);
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        ObjectReader rowReader = objectMapper.readerFor(PolicyRequest.class);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                run.accept(lineNumber, rowReader.readValue(line));
+            } catch (JsonProcessingException e) {
+                run.reject(lineNumber, "invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        int lineNumber = 0;
+        Map<String, Integer> columnIndex = null;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = parseCsvLine(line);
+            if (columnIndex == null) {
+                columnIndex = new HashMap<>();
+                for (int i = 0; i < fields.size(); i++) {
+                    columnIndex.put(fields.get(i).trim().toLowerCase(Locale.ROOT), i);
+                }
+                for (String column : CSV_COLUMNS) {
+                    if (!columnIndex.containsKey(column.toLowerCase(Locale.ROOT))) {
+                        throw new RuntimeException("CSV header is missing column: " + column);
+                    }
+                }
+                continue;
+            }
+
+            PolicyRequest request = new PolicyRequest();
+            try {
+                request.setPolicyNumber(field(fields, columnIndex, "policyNumber"));
+                request.setVehicleType(field(fields, columnIndex, "vehicleType"));
+                request.setCoverageAmount(parse(field(fields, columnIndex, "coverageAmount"), BigDecimal::new));
+                request.setCoverageType(field(fields, columnIndex, "coverageType"));
+                request.setPremiumAmount(parse(field(fields, columnIndex, "premiumAmount"), BigDecimal::new));
+                request.setStartDate(parse(field(fields, columnIndex, "startDate"), LocalDate::parse));
+                request.setEndDate(parse(field(fields, columnIndex, "endDate"), LocalDate::parse));
+                request.setPolicyStatus(field(fields, columnIndex, "policyStatus"));
+            } catch (RuntimeException e) {
+                run.reject(lineNumber, "invalid number or date (" + e.getMessage() + ")");
+                continue;
+            }
+            run.accept(lineNumber, request);
+        }
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columnIndex, String column) {
+        int index = columnIndex.get(column.toLowerCase(Locale.ROOT));
+        if (index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parse(String value, Function<String, T> parser) {
+        return value == null ? null : parser.apply(value);
+    }
+
+    // RFC 4180 fields on a single line: commas, double quotes and "" escapes
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * State of one import: the pending batch, numbers seen so far and the outcome counters.
+     */
+    private final class ImportRun {
+        private final List<Policy> pending = new ArrayList<>();
+        private final List<Integer> pendingLines = new ArrayList<>();
+        private final Set<String> seenNumbers = new HashSet<>();
+        private final List<String> errors = new ArrayList<>();
+        private int imported;
+        private int rejected;
+
+        void accept(int lineNumber, PolicyRequest request) {
+            Set<ConstraintViolation<PolicyRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                reject(lineNumber, violations.stream().map(ConstraintViolation::getMessage).sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            if (request.getPolicyHolderId() != null) {
+                reject(lineNumber, "policy holders cannot be assigned to templates");
+                return;
+            }
+            Policy.PolicyStatus status;
+            try {
+                status = Policy.PolicyStatus.valueOf(request.getPolicyStatus().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                reject(lineNumber, "invalid policy status: " + request.getPolicyStatus());
+                return;
+            }
+            if (!seenNumbers.add(request.getPolicyNumber())) {
+                reject(lineNumber, "duplicate policy number in file: " + request.getPolicyNumber());
+                return;
+            }
+
+            pending.add(new Policy(request.getPolicyNumber(), request.getVehicleType(), request.getCoverageAmount(),
+                    request.getCoverageType(), request.getPremiumAmount(), request.getStartDate(),
+                    request.getEndDate(), status));
+            pendingLines.add(lineNumber);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(int lineNumber, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("line " + lineNumber + ": " + reason);
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Set<String> existing = new HashSet<>(policyRepository.findExistingPolicyNumbers(
+                    pending.stream().map(Policy::getPolicyNumber).toList()));
+            List<Policy> rows = new ArrayList<>(pending.size());
+            for (int i = 0; i < pending.size(); i++) {
+                Policy policy = pending.get(i);
+                if (existing.contains(policy.getPolicyNumber())) {
+                    reject(pendingLines.get(i), "policy number already exists: " + policy.getPolicyNumber());
+                } else {
+                    rows.add(policy);
+                }
+            }
+            pending.clear();
+            pendingLines.clear();
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, policy) -> {
+                    ps.setString(1, policy.getPolicyNumber());
+                    ps.setString(2, policy.getVehicleType());
+                    ps.setBigDecimal(3, policy.getCoverageAmount());
+                    ps.setString(4, policy.getCoverageType());
+                    ps.setBigDecimal(5, policy.getPremiumAmount());
+                    ps.setDate(6, Date.valueOf(policy.getStartDate()));
+                    ps.setDate(7, Date.valueOf(policy.getEndDate()));
+                    ps.setString(8, policy.getPolicyStatus().name());
+                });
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent create took one of the numbers after the existence check; nothing is committed
+                throw new RuntimeException("Policy number already exists; import rolled back");
+            }
+            imported += rows.size();
+        }
+    }
+}
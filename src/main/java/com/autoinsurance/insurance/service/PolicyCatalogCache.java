@@ -0,0 +1,252 @@
+package com.autoinsurance.insurance.service;
+
+import com.autoinsurance.insurance.dto.PolicyResponse;
+import com.autoinsurance.insurance.model.Policy;
+import com.autoinsurance.insurance.repository.PolicyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Versioned in-memory copy of the policy template catalog.
+ * The whole catalog is loaded once into an immutable snapshot (list, by id, by number);
+ * reads return the pre-built PolicyResponse objects, so a hit does no DB access and no
+ * allocation. Callers must treat the returned responses as read-only.
+ * Any template write calls invalidate(), which bumps the version after the transaction
+ * commits; the next read rebuilds the snapshot. Writes made on other nodes are not seen by
+ * that, so a snapshot is also reloaded once it is older than policy.catalog.refresh-interval-ms;
+ * that interval bounds how stale another node's catalog can be. Only a version change makes
+ * readers wait for the rebuild: an old snapshot keeps being served while one background task
+ * reloads it. Lookups of unknown ids or numbers are
+ * answered from the snapshot and never reach the database; lookups by policy number
+ * are a single hash probe.
+ * Each snapshot also carries the catalog pre-rendered as JSON (plain and gzip) and a strong
+ * ETag per encoding computed from those bytes, so the public list endpoint can answer
+ * conditional GETs and full responses without running Jackson.
+ *
+ * Metrics: policy.catalog.requests (counter, result=hit/miss), policy.catalog.hit.ratio (gauge),
+ * policy.catalog.rebuild (timer), policy.catalog.size (gauge).
+ */
+@Component
+public class PolicyCatalogCache {
+
+    private final PolicyRepository policyRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TaskExecutor taskExecutor;
+    private final long refreshIntervalNanos;
+    private final AtomicLong version = new AtomicLong();
+    private final Object rebuildLock = new Object();
+    // Set while a background reload of an old snapshot is queued or running
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer rebuildTimer;
+
+    public PolicyCatalogCache(PolicyRepository policyRepository, ObjectMapper objectMapper,
+                              EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry,
+                              @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                              @Value("${policy.catalog.refresh-interval-ms:30000}") long refreshIntervalMs) {
+        this.policyRepository = policyRepository;
+        this.objectMapper = objectMapper;
+        this.entityManagerFactory = entityManagerFactory;
+        this.taskExecutor = taskExecutor;
+        this.refreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(refreshIntervalMs);
+        this.hits = Counter.builder("policy.catalog.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("policy.catalog.requests").tag("result", "miss").register(meterRegistry);
+        this.rebuildTimer = Timer.builder("policy.catalog.rebuild")
+                .description("Time to reload the policy catalog from the database")
+                .register(meterRegistry);
+        Gauge.builder("policy.catalog.hit.ratio", this, cache -> {
+                    double total = cache.hits.count() + cache.misses.count();
+                    return total == 0 ? 0 : cache.hits.count() / total;
+                })
+                .register(meterRegistry);
+        Gauge.builder("policy.catalog.size", this, cache -> cache.snapshot.all().size())
+                .register(meterRegistry);
+    }
+
+    public List<PolicyResponse> findAll() {
+        return current().all();
+    }
+
+    public Optional<PolicyResponse> findById(Long policyId) {
+        return Optional.ofNullable(current().byId().get(policyId));
+    }
+
+    public Optional<PolicyResponse> findByPolicyNumber(String policyNumber) {
+        return Optional.ofNullable(current().byNumber().get(policyNumber));
+    }
+
+    /**
+     * The full catalog as ready-to-send JSON bytes with its ETag.
+     */
+    public RenderedCatalog rendered() {
+        return current().rendered();
+    }
+
+    /**
+     * Mark the catalog stale. Inside a transaction the bump is deferred until commit,
+     * so a concurrent read cannot rebuild from data that is about to change.
+     */
+    public void invalidate() {
+        afterCommit(version::incrementAndGet);
+    }
+
+    /**
+     * invalidate() for writes that bypass Hibernate (JDBC batches, native SQL): also drops the
+     * Policy second-level region, which Hibernate cannot know is stale.
+     */
+    public void invalidateAfterBulkWrite() {
+        afterCommit(() -> {
+            Cache secondLevelCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            secondLevelCache.evictEntityData(Policy.class);
+            version.incrementAndGet();
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current.version() == version.get()) {
+            hits.increment();
+            if (isOld(current)) {
+                refreshInBackground();
+            }
+            return current;
+        }
+        misses.increment();
+        synchronized (rebuildLock) {
+            // Another thread may have rebuilt while we waited
+            current = snapshot;
+            long target = version.get();
+            if (current.version() != target) {
+                current = rebuild(target);
+            }
+            return current;
+        }
+    }
+
+    private void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    synchronized (rebuildLock) {
+                        // A write on this node may have rebuilt it in the meantime
+                        if (isOld(snapshot)) {
+                            rebuild(version.get());
+                        }
+                    }
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Executor saturated: the next read tries again
+            refreshing.set(false);
+        }
+    }
+
+    private Snapshot rebuild(long targetVersion) {
+        Snapshot rebuilt = rebuildTimer.record(() -> load(targetVersion));
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+
+    private boolean isOld(Snapshot current) {
+        return System.nanoTime() - current.loadedAtNanos() >= refreshIntervalNanos;
+    }
+
+    private Snapshot load(long targetVersion) {
+        long loadedAtNanos = System.nanoTime();
+        List<PolicyResponse> all = List.copyOf(policyRepository.findAllTemplateResponses());
+        Map<Long, PolicyResponse> byId = new HashMap<>();
+        Map<String, PolicyResponse> byNumber = new HashMap<>();
+        for (PolicyResponse policy : all) {
+            byId.put(policy.getPolicyId(), policy);
+            // Unique in the table (uk_policies_policy_number), so this is an exact number -> template map
+            byNumber.put(policy.getPolicyNumber(), policy);
+        }
+        return new Snapshot(targetVersion, loadedAtNanos, all, Map.copyOf(byId), Map.copyOf(byNumber), render(all));
+    }
+
+    private RenderedCatalog render(List<PolicyResponse> all) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(all);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            // Content hash rather than the local version counter: identical on every node and across restarts
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            String hash = HexFormat.of().formatHex(digest, 0, 16);
+            // Strong validators must differ between content-codings (RFC 9110 8.8.3)
+            return new RenderedCatalog("\"" + hash + "\"", "\"" + hash + "-gz\"", json, compressed.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render policy catalog", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Pre-rendered catalog: etag goes with json, gzipEtag with gzipJson.
+     * The byte arrays are shared between requests and must not be modified.
+     */
+    public record RenderedCatalog(String etag, String gzipEtag, byte[] json, byte[] gzipJson) {
+    }
+
+    private record Snapshot(long version, long loadedAtNanos, List<PolicyResponse> all,
+                            Map<Long, PolicyResponse> byId, Map<String, PolicyResponse> byNumber,
+                            RenderedCatalog rendered) {
+        // Version -1 never matches, so the first read loads the catalog
+        static final Snapshot EMPTY = new Snapshot(-1, 0, List.of(), Map.of(), Map.of(), null);
+    }
+}
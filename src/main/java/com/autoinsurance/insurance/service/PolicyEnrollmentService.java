@@ -2,21 +2,30 @@ package com.autoinsurance.insurance.service;
 
 import com.autoinsurance.insurance.dto.EnrollmentEligibilityResponse;
 import com.autoinsurance.insurance.dto.PolicyEnrollmentResponse;
+import com.autoinsurance.insurance.dto.PolicyResponse;
 import com.autoinsurance.insurance.exception.AccessDeniedException;
 import com.autoinsurance.insurance.model.Policy;
 import com.autoinsurance.insurance.model.PolicyEnrollment;
 import com.autoinsurance.insurance.model.Role;
 import com.autoinsurance.insurance.model.User;
+import com.autoinsurance.insurance.model.VehicleIdentity;
+import com.autoinsurance.insurance.repository.EnrollmentEligibilityView;
+import com.autoinsurance.insurance.repository.EnrollmentHistory;
 import com.autoinsurance.insurance.repository.PolicyEnrollmentRepository;
 import com.autoinsurance.insurance.repository.PolicyRepository;
-import com.autoinsurance.insurance.repository.UserRepository;
+import com.autoinsurance.insurance.repository.TemplateEnrollmentHistory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.security.Principal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -31,97 +40,193 @@ public class PolicyEnrollmentService {
     private PolicyRepository policyRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private PolicyNumberGenerator policyNumberGenerator;
+
+    @Autowired
+    private PolicyCatalogCache policyCatalogCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
 
 
     /**
      * Customer enrolls in a policy template with vehicle details
+     * The checks below give friendly messages; uk_policy_enrollments_active_key is what actually
+     * prevents two active enrollments when requests race. With an idempotency key, a retried
+     * request returns the enrollment created by the first attempt instead of failing.
      */
-    public PolicyEnrollmentResponse enrollInPolicyTemplate(Long policyTemplateId, String vehicleDetails, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-
+    // The insert runs in its own transaction so a unique-key failure can be examined afterwards
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PolicyEnrollmentResponse enrollInPolicyTemplate(Long policyTemplateId, String vehicleDetails,
+                                                           String idempotencyKey, User currentUser) {
         // Only customers can enroll in policies
         if (currentUser.getRole() != Role.CUSTOMER) {
             throw new AccessDeniedException("Only customers can enroll in policies");
         }
 
-        // Get the policy template
-        Policy policyTemplate = policyRepository.findById(policyTemplateId)
-                .orElseThrow(() -> new RuntimeException("Policy template not found"));
+        if (idempotencyKey != null) {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > 100) {
+                throw new RuntimeException("Idempotency-Key must be 1 to 100 characters");
+            }
+            // Retry of a request that already went through
+            PolicyEnrollmentResponse previous = findByIdempotencyKey(policyTemplateId, idempotencyKey, currentUser);
+            if (previous != null) {
+                return previous;
+            }
+        }
+
+        // Template status and this customer's enrollment flags, one query
+        EnrollmentEligibilityView eligibility = loadEligibility(policyTemplateId, currentUser);
 
         // Verify it's an active policy template
-        if (policyTemplate.getPolicyStatus() != Policy.PolicyStatus.ACTIVE) {
+        if (eligibility.getPolicyStatus() != Policy.PolicyStatus.ACTIVE) {
             throw new RuntimeException("This policy template is not active and cannot be enrolled in.");
         }
 
+        // A concurrent request with the same key may have created the enrollment since the check above
+        if (idempotencyKey != null && (eligibility.getApprovedCount() > 0 || eligibility.getPendingCount() > 0)) {
+            PolicyEnrollmentResponse previous = findByIdempotencyKey(policyTemplateId, idempotencyKey, currentUser);
+            if (previous != null) {
+                return previous;
+            }
+        }
+
         // Check if customer already has an approved enrollment for this template
-        if (enrollmentRepository.hasApprovedEnrollment(currentUser, policyTemplate)) {
+        if (eligibility.getApprovedCount() > 0) {
             throw new RuntimeException("You already have an approved policy for this template. Cannot enroll again.");
         }
 
         // Check if customer already has a pending enrollment for this template
-        if (enrollmentRepository.hasPendingEnrollment(currentUser, policyTemplate)) {
+        if (eligibility.getPendingCount() > 0) {
             throw new RuntimeException("You already have a pending enrollment for this template. Please wait for approval.");
         }
 
         // Generate unique policy number for this enrollment
-        String generatedPolicyNumber = generateUniquePolicyNumber(policyTemplate.getPolicyNumber());
+        String generatedPolicyNumber = generateUniquePolicyNumber(eligibility.getPolicyNumber());
 
-        // Create enrollment record with vehicle details
-        PolicyEnrollment enrollment = new PolicyEnrollment(policyTemplate, currentUser, generatedPolicyNumber, vehicleDetails);
-        
         try {
-            PolicyEnrollment savedEnrollment = enrollmentRepository.save(enrollment);
-            return new PolicyEnrollmentResponse(savedEnrollment);
-        } catch (org.springframework.dao.DataIntegrityViolationException e) {
-            // Handle unique constraint violation for vehicle_details
-            if (e.getMessage().contains("vehicle_details")) {
+            return transactionTemplate.execute(status -> {
+                // Reference only: the template itself is served from the second-level cache when needed
+                Policy policyTemplate = policyRepository.getReferenceById(policyTemplateId);
+
+                // Create enrollment record with vehicle details
+                PolicyEnrollment enrollment = new PolicyEnrollment(policyTemplate, currentUser, generatedPolicyNumber, vehicleDetails);
+                enrollment.setIdempotencyKey(idempotencyKey);
+                return new PolicyEnrollmentResponse(enrollmentRepository.save(enrollment));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request won; its row is committed, so ask which unique key we collided with
+            if (idempotencyKey != null) {
+                PolicyEnrollmentResponse previous = findByIdempotencyKey(policyTemplateId, idempotencyKey, currentUser);
+                if (previous != null) {
+                    return previous;
+                }
+            }
+            if (enrollmentRepository.existsByActiveEnrollmentKey(
+                    PolicyEnrollment.activeEnrollmentKey(currentUser.getUserId(), policyTemplateId))) {
+                throw new RuntimeException("You already have a pending or approved enrollment for this template.");
+            }
+            VehicleIdentity vehicle = VehicleIdentity.parse(vehicleDetails);
+            if (vehicle != null && enrollmentRepository.existsByVehicleIdentityHash(vehicle.getHash())) {
                 throw new RuntimeException("This vehicle is already enrolled in the insurance system. Each vehicle can only be enrolled once.");
             }
-            throw e; // Re-throw if it's a different constraint violation
+            throw e;
         }
     }
 
+    /**
+     * Enrollment created earlier by this customer with the same idempotency key, or null
+     */
+    private PolicyEnrollmentResponse findByIdempotencyKey(Long policyTemplateId, String idempotencyKey, User currentUser) {
+        return transactionTemplate.execute(status -> enrollmentRepository
+                .findByCustomerIdAndIdempotencyKey(currentUser.getUserId(), idempotencyKey)
+                .map(existing -> {
+                    if (!existing.getPolicyTemplate().getPolicyId().equals(policyTemplateId)) {
+                        throw new RuntimeException("Idempotency-Key was already used for a different policy template");
+                    }
+                    return new PolicyEnrollmentResponse(existing);
+                })
+                .orElse(null));
+    }
+
     /**
      * Check detailed enrollment eligibility for a customer
      * Returns specific information about why they can or cannot enroll
      */
-    public EnrollmentEligibilityResponse checkEnrollmentEligibility(Long policyTemplateId, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-
+    public EnrollmentEligibilityResponse checkEnrollmentEligibility(Long policyTemplateId, User currentUser) {
         // Only customers can check enrollment eligibility
         if (currentUser.getRole() != Role.CUSTOMER) {
             return new EnrollmentEligibilityResponse(false, "Only customers can enroll in policies", null);
         }
 
-        // Get the policy template
-        Policy policyTemplate = policyRepository.findById(policyTemplateId)
-                .orElseThrow(() -> new RuntimeException("Policy template not found"));
+        // Template status and this customer's enrollment flags, one query
+        EnrollmentEligibilityView eligibility = loadEligibility(policyTemplateId, currentUser);
+
+        return evaluateEligibility(eligibility.getPolicyStatus() == Policy.PolicyStatus.ACTIVE, eligibility);
+    }
+
+    /**
+     * Enrollment eligibility for many templates at once (every active template if none are given)
+     * One grouped query over the customer's enrollments; template status comes from the catalog cache
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, EnrollmentEligibilityResponse> checkEnrollmentEligibilityBatch(List<Long> policyTemplateIds, User currentUser) {
+        if (currentUser.getRole() != Role.CUSTOMER) {
+            throw new AccessDeniedException("Only customers can enroll in policies");
+        }
 
+        Map<Long, TemplateEnrollmentHistory> history = new HashMap<>();
+        for (TemplateEnrollmentHistory row : enrollmentRepository.findHistoryByCustomer(currentUser.getUserId())) {
+            history.put(row.getPolicyTemplateId(), row);
+        }
+
+        Map<Long, EnrollmentEligibilityResponse> result = new LinkedHashMap<>();
+        if (policyTemplateIds == null || policyTemplateIds.isEmpty()) {
+            for (PolicyResponse template : policyCatalogCache.findAll()) {
+                if ("ACTIVE".equals(template.getPolicyStatus())) {
+                    result.put(template.getPolicyId(), evaluateEligibility(true, history.get(template.getPolicyId())));
+                }
+            }
+            return result;
+        }
+        for (Long policyTemplateId : policyTemplateIds) {
+            Optional<PolicyResponse> template = policyCatalogCache.findById(policyTemplateId);
+            result.put(policyTemplateId, template.isEmpty()
+                    ? new EnrollmentEligibilityResponse(false, "Policy template not found", null)
+                    : evaluateEligibility("ACTIVE".equals(template.get().getPolicyStatus()), history.get(policyTemplateId)));
+        }
+        return result;
+    }
+
+    /**
+     * Eligibility rules given the template status and the customer's history for it (null = never enrolled)
+     */
+    private EnrollmentEligibilityResponse evaluateEligibility(boolean templateActive, EnrollmentHistory history) {
         // Check if policy template is active
-        if (policyTemplate.getPolicyStatus() != Policy.PolicyStatus.ACTIVE) {
+        if (!templateActive) {
             return new EnrollmentEligibilityResponse(false, "This policy template is not active", null);
         }
+        if (history == null) {
+            return new EnrollmentEligibilityResponse(true, "You are eligible to enroll in this policy template.", null);
+        }
 
         // Check existing enrollments for blocking statuses
-        if (enrollmentRepository.hasApprovedEnrollment(currentUser, policyTemplate)) {
+        if (history.getApprovedCount() > 0) {
             return new EnrollmentEligibilityResponse(false, "You already have an APPROVED policy for this template. Cannot enroll again.", "APPROVED");
         }
 
-        if (enrollmentRepository.hasPendingEnrollment(currentUser, policyTemplate)) {
+        if (history.getPendingCount() > 0) {
             return new EnrollmentEligibilityResponse(false, "You have a PENDING enrollment awaiting admin review. Please wait for approval.", "PENDING");
         }
 
-        // Check if user had previous declined or withdrawn enrollment (these allow re-enrollment)
-        Optional<PolicyEnrollment> latestEnrollment = enrollmentRepository.findLatestEnrollmentByCustomerAndTemplate(currentUser, policyTemplate);
-        if (latestEnrollment.isPresent()) {
-            String status = latestEnrollment.get().getEnrollmentStatus().name();
-            if ("DECLINED".equals(status)) {
-                return new EnrollmentEligibilityResponse(true, "You can re-enroll (previous enrollment was DECLINED).", "DECLINED");
-            } else if ("WITHDRAWN".equals(status)) {
-                return new EnrollmentEligibilityResponse(true, "You can re-enroll (previous enrollment was WITHDRAWN).", "WITHDRAWN");
-            }
+        // Check if user had previous declined or withdrawn enrollment (these allow re-enrollment); the latest one wins
+        LocalDateTime lastDeclined = history.getLastDeclined();
+        LocalDateTime lastWithdrawn = history.getLastWithdrawn();
+        if (lastDeclined != null && (lastWithdrawn == null || !lastWithdrawn.isAfter(lastDeclined))) {
+            return new EnrollmentEligibilityResponse(true, "You can re-enroll (previous enrollment was DECLINED).", "DECLINED");
+        } else if (lastWithdrawn != null) {
+            return new EnrollmentEligibilityResponse(true, "You can re-enroll (previous enrollment was WITHDRAWN).", "WITHDRAWN");
         }
 
         // No previous enrollments - eligible
@@ -131,9 +236,7 @@ public class PolicyEnrollmentService {
     /**
      * Admin approves customer enrollment
      */
-    public PolicyEnrollmentResponse approveEnrollment(Long enrollmentId, String notes, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-
+    public PolicyEnrollmentResponse approveEnrollment(Long enrollmentId, String notes, User currentUser) {
         // Only admins can approve enrollments
         if (currentUser.getRole() != Role.ADMIN) {
             throw new AccessDeniedException("Only admins can approve enrollments");
@@ -159,9 +262,7 @@ public class PolicyEnrollmentService {
     /**
      * Admin declines customer enrollment
      */
-    public PolicyEnrollmentResponse declineEnrollment(Long enrollmentId, String reason, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-
+    public PolicyEnrollmentResponse declineEnrollment(Long enrollmentId, String reason, User currentUser) {
         // Only admins can decline enrollments
         if (currentUser.getRole() != Role.ADMIN) {
             throw new AccessDeniedException("Only admins can decline enrollments");
@@ -187,9 +288,7 @@ public class PolicyEnrollmentService {
     /**
      * Get all pending enrollments for admin review
      */
-    public List<PolicyEnrollmentResponse> getPendingEnrollments(Principal principal) {
-        User currentUser = getCurrentUser(principal);
-
+    public List<PolicyEnrollmentResponse> getPendingEnrollments(User currentUser) {
         // Only admins can view pending enrollments
         if (currentUser.getRole() != Role.ADMIN) {
             throw new AccessDeniedException("Only admins can view pending enrollments");
@@ -205,9 +304,7 @@ public class PolicyEnrollmentService {
     /**
      * Get customer's enrollment history
      */
-    public List<PolicyEnrollmentResponse> getCustomerEnrollments(Principal principal) {
-        User currentUser = getCurrentUser(principal);
-
+    public List<PolicyEnrollmentResponse> getCustomerEnrollments(User currentUser) {
         // Only customers can view their own enrollments
         if (currentUser.getRole() != Role.CUSTOMER) {
             throw new AccessDeniedException("Only customers can view their enrollments");
@@ -223,32 +320,28 @@ public class PolicyEnrollmentService {
     /**
      * Check if customer can enroll in a specific template
      */
-    public boolean canCustomerEnroll(Long policyTemplateId, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-
+    public boolean canCustomerEnroll(Long policyTemplateId, User currentUser) {
         if (currentUser.getRole() != Role.CUSTOMER) {
             return false;
         }
 
-        Policy policyTemplate = policyRepository.findById(policyTemplateId)
+        EnrollmentEligibilityView eligibility = enrollmentRepository
+                .findEligibility(currentUser.getUserId(), policyTemplateId)
                 .orElse(null);
 
-        if (policyTemplate == null || policyTemplate.getPolicyStatus() != Policy.PolicyStatus.ACTIVE) {
+        if (eligibility == null || eligibility.isArchived() || eligibility.getPolicyStatus() != Policy.PolicyStatus.ACTIVE) {
             return false;
         }
 
         // Cannot enroll if already approved or pending
-        return !enrollmentRepository.hasApprovedEnrollment(currentUser, policyTemplate) 
-                && !enrollmentRepository.hasPendingEnrollment(currentUser, policyTemplate);
+        return eligibility.getApprovedCount() == 0 && eligibility.getPendingCount() == 0;
     }
 
     /**
      * Get all policy enrollments with comprehensive details (Admin only)
      * Returns all enrollments regardless of status with user-friendly names
      */
-    public List<PolicyEnrollmentResponse> getAllEnrollments(Principal principal) {
-        User currentUser = getCurrentUser(principal);
-        
+    public List<PolicyEnrollmentResponse> getAllEnrollments(User currentUser) {
         // Only admins can view all enrollments
         if (currentUser.getRole() != Role.ADMIN) {
             throw new AccessDeniedException("Only administrators can view all enrollments");
@@ -262,17 +355,18 @@ public class PolicyEnrollmentService {
     }
 
     /**
-     * Helper method to generate unique policy number for enrolled policies
+     * Template status plus the customer's enrollment flags for it; archived templates count as missing
      */
-    private String generateUniquePolicyNumber(String templateNumber) {
-        return templateNumber + "-" + System.currentTimeMillis();
+    private EnrollmentEligibilityView loadEligibility(Long policyTemplateId, User currentUser) {
+        return enrollmentRepository.findEligibility(currentUser.getUserId(), policyTemplateId)
+                .filter(eligibility -> !eligibility.isArchived())
+                .orElseThrow(() -> new RuntimeException("Policy template not found"));
     }
 
     /**
-     * Helper method to get current user from principal
+     * Helper method to generate unique policy number for enrolled policies
      */
-    private User getCurrentUser(Principal principal) {
-        return userRepository.findByUsername(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    private String generateUniquePolicyNumber(String templateNumber) {
+        return policyNumberGenerator.next(templateNumber);
     }
 }
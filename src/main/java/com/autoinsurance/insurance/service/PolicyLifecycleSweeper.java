@@ -0,0 +1,84 @@
+package com.autoinsurance.insurance.service;
+
+import com.autoinsurance.insurance.repository.PolicyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * Background expiry of policy templates: ACTIVE templates whose end date has passed are set
+ * to INACTIVE, so enrollment and eligibility checks can trust the status flag.
+ * Runs as bulk UPDATE ... LIMIT statements, one short transaction per batch, without loading
+ * entities. Each batch that changed rows evicts the Policy second-level cache and the catalog.
+ * The UPDATE is idempotent, so overlapping sweeps on several nodes are harmless. Only the node
+ * whose UPDATE changed rows invalidates; the others pick the change up through the catalog
+ * refresh (policy.catalog.refresh-interval-ms) and the Policy L2 expiry
+ * (hibernate-cache.policy.expire-after-write-seconds), so a sweep that changed nothing leaves
+ * the caches alone.
+ *
+ * Metrics: policy.lifecycle.sweep (timer), policy.lifecycle.expired (counter, templates deactivated).
+ */
+@Component
+public class PolicyLifecycleSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(PolicyLifecycleSweeper.class);
+
+    private final PolicyRepository policyRepository;
+    private final PolicyCatalogCache policyCatalogCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Timer sweepTimer;
+    private final Counter expired;
+
+    public PolicyLifecycleSweeper(PolicyRepository policyRepository, PolicyCatalogCache policyCatalogCache,
+                                  TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                                  @Value("${policy.lifecycle.batch-size:500}") int batchSize) {
+        this.policyRepository = policyRepository;
+        this.policyCatalogCache = policyCatalogCache;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.sweepTimer = Timer.builder("policy.lifecycle.sweep")
+                .description("Duration of one policy template expiry sweep")
+                .register(meterRegistry);
+        this.expired = Counter.builder("policy.lifecycle.expired")
+                .description("Policy templates deactivated after their end date")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${policy.lifecycle.initial-delay-ms:60000}",
+               fixedDelayString = "${policy.lifecycle.sweep-interval-ms:300000}")
+    public void sweep() {
+        int total = sweepTimer.record(() -> expireBefore(LocalDate.now()));
+        if (total > 0) {
+            logger.info("Deactivated {} expired policy templates", total);
+        }
+    }
+
+    /**
+     * Deactivate every ACTIVE template that ended before the given day; returns the number changed.
+     */
+    public int expireBefore(LocalDate today) {
+        int total = 0;
+        int updated;
+        do {
+            updated = transactionTemplate.execute(status -> {
+                int rows = policyRepository.deactivateExpired(today, batchSize);
+                if (rows > 0) {
+                    policyCatalogCache.invalidateAfterBulkWrite();
+                }
+                return rows;
+            });
+            total += updated;
+            expired.increment(updated);
+        } while (updated == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,67 @@
+package com.autoinsurance.insurance.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Policy numbers for enrollments: "<template number>-<id>", where id is a 64-bit value
+ * built from milliseconds since 2024-01-01 (41 bits), the node id (10 bits) and a
+ * per-millisecond sequence (12 bits), printed in base 36.
+ * Ids are unique across nodes as long as every node has its own policy-number.node-id,
+ * and strictly increasing per node: the last (timestamp, sequence) pair is one AtomicLong
+ * advanced with CAS, so there is no lock. More than 4096 ids in one millisecond, or a
+ * clock that steps back, just continue from the last value instead of waiting.
+ * uk_policy_enrollments_generated_number backs this up in the database.
+ * application.properties ships node 0 for a single node; every further node must override it.
+ */
+@Component
+public class PolicyNumberGenerator {
+
+    static final long EPOCH_MS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+    // (ms since epoch << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public PolicyNumberGenerator(@Value("${policy-number.node-id}") int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    PolicyNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("policy-number.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    /**
+     * Next enrollment policy number for the given template
+     */
+    public String next(String templateNumber) {
+        return templateNumber + "-" + Long.toString(nextId(), 36).toUpperCase(Locale.ROOT);
+    }
+
+    long nextId() {
+        long nowState = (clock.getAsLong() - EPOCH_MS) << SEQUENCE_BITS;
+        while (true) {
+            long last = lastState.get();
+            long next = Math.max(last + 1, nowState);
+            if (lastState.compareAndSet(last, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+            }
+        }
+    }
+}
@@ -2,37 +2,57 @@ package com.autoinsurance.insurance.service;
 
 import com.autoinsurance.insurance.dto.PolicyRequest;
 import com.autoinsurance.insurance.dto.PolicyResponse;
+import com.autoinsurance.insurance.dto.PolicySearchCriteria;
+import com.autoinsurance.insurance.dto.PolicySearchResponse;
 import com.autoinsurance.insurance.exception.AccessDeniedException;
+import com.autoinsurance.insurance.exception.BadRequestException;
 import com.autoinsurance.insurance.model.Policy;
 import com.autoinsurance.insurance.model.Role;
 import com.autoinsurance.insurance.model.User;
 import com.autoinsurance.insurance.repository.PolicyRepository;
-import com.autoinsurance.insurance.repository.UserRepository;
+import com.autoinsurance.insurance.repository.PolicySpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
-@Transactional
+@Transactional  // writes; catalog reads override this with read-only SUPPORTS (see PolicyCatalogCache)
 public class PolicyService {
 
     @Autowired
     private PolicyRepository policyRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private PolicyCatalogCache policyCatalogCache;
+
+    // Sortable fields and how to read their cursor values back
+    private static final Map<String, Function<String, Comparable<?>>> SORT_FIELDS = Map.of(
+        "policyId", Long::valueOf,
+        "premiumAmount", BigDecimal::new,
+        "coverageAmount", BigDecimal::new,
+        "startDate", LocalDate::parse,
+        "endDate", LocalDate::parse
+    );
 
     /**
      * Create a new policy template
      * Only ADMIN can create policy templates
      */
-    public PolicyResponse validateCreatePolicy(PolicyRequest request, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-        
+    public PolicyResponse validateCreatePolicy(PolicyRequest request, User currentUser) {
         // Only ADMIN can create policy templates
         if (currentUser.getRole() == Role.CUSTOMER) {
             throw new AccessDeniedException("Customers cannot create policies");
@@ -43,6 +63,11 @@ public class PolicyService {
             throw new RuntimeException("Cannot assign policy holder during template creation. Use enrollment system instead.");
         }
         
+        // Policy numbers are unique (uk_policies_policy_number)
+        if (policyRepository.existsByPolicyNumber(request.getPolicyNumber())) {
+            throw new RuntimeException("Policy number already exists: " + request.getPolicyNumber());
+        }
+        
         // Create policy template
         Policy policy = new Policy(
             request.getPolicyNumber(),
@@ -55,22 +80,28 @@ public class PolicyService {
             Policy.PolicyStatus.valueOf(request.getPolicyStatus().toUpperCase())
         );
         
-        Policy savedPolicy = policyRepository.save(policy);
+        Policy savedPolicy;
+        try {
+            savedPolicy = policyRepository.save(policy);
+        } catch (DataIntegrityViolationException e) {
+            // Concurrent create with the same number got past the existence check
+            throw new RuntimeException("Policy number already exists: " + request.getPolicyNumber());
+        }
+        policyCatalogCache.invalidate();
         return new PolicyResponse(savedPolicy);
     }
 
     /**
      * Update an existing policy template
      */
-    public PolicyResponse validateUpdatePolicy(Long policyId, PolicyRequest updates, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-        
+    public PolicyResponse validateUpdatePolicy(Long policyId, PolicyRequest updates, User currentUser) {
         // Only ADMIN can update policy templates
         if (currentUser.getRole() == Role.CUSTOMER) {
             throw new AccessDeniedException("Customers cannot update policy templates");
         }
         
         Policy existingPolicy = policyRepository.findById(policyId)
+            .filter(policy -> !policy.isArchived())
             .orElseThrow(() -> new RuntimeException("Policy template not found"));
         
         // Update policy template fields
@@ -83,55 +114,61 @@ public class PolicyService {
         existingPolicy.setPolicyStatus(Policy.PolicyStatus.valueOf(updates.getPolicyStatus().toUpperCase()));
         
         Policy savedPolicy = policyRepository.save(existingPolicy);
+        policyCatalogCache.invalidate();
         return new PolicyResponse(savedPolicy);
     }
 
     /**
-     * Fetch all policy templates
+     * Fetch all policy templates, archived ones included (flagged archived)
+     * Read from the database rather than the catalog, which only holds the public templates
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<PolicyResponse> fetchAllPolicies(Principal principal) {
-        List<Policy> policies = policyRepository.findAll();
-        
-        return policies.stream()
-            .map(PolicyResponse::new)
-            .collect(Collectors.toList());
+        return policyRepository.findAllTemplateResponsesWithArchived();
     }
 
     /**
-     * Fetch policy template by ID
+     * Fetch policy template by ID, archived or not
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public PolicyResponse fetchPolicyById(Long policyId, Principal principal) {
-        Policy policy = policyRepository.findById(policyId)
+        return policyRepository.findTemplateResponseById(policyId)
             .orElseThrow(() -> new RuntimeException("Policy template not found"));
-        
-        return new PolicyResponse(policy);
     }
 
     /**
      * Delete policy template - ADMIN only
+     * Templates still referenced by enrollments or claims (or archive = true) are archived
+     * instead of deleted. Both paths are a single statement by id; no entity is loaded.
+     * Returns true if the template was archived.
      */
-    public void removePolicy(Long policyId, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-        
+    public boolean removePolicy(Long policyId, boolean archive, User currentUser) {
         if (currentUser.getRole() != Role.ADMIN) {
             throw new AccessDeniedException("Only admins can delete policy templates");
         }
-        
-        if (!policyRepository.existsById(policyId)) {
+
+        boolean archived = archive || policyRepository.countDependencies(policyId) > 0;
+        int rows;
+        try {
+            rows = archived ? policyRepository.archiveById(policyId) : policyRepository.deleteByIdDirect(policyId);
+        } catch (DataIntegrityViolationException e) {
+            // An enrollment was created after the dependency check
+            throw new RuntimeException("Policy template is now referenced by enrollments; please retry");
+        }
+        if (rows == 0) {
             throw new RuntimeException("Policy template not found");
         }
-        
-        policyRepository.deleteById(policyId);
+        policyCatalogCache.invalidateAfterBulkWrite();
+        return archived;
     }
 
     /**
-     * Fetch policy template by policy number
+     * Fetch policy template by policy number, archived or not
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public PolicyResponse fetchPolicyByNumber(String policyNumber, Principal principal) {
-        Policy policy = policyRepository.findByPolicyNumber(policyNumber)
+        return policyRepository.findTemplateResponseByPolicyNumber(policyNumber)
             .orElseThrow(() -> new RuntimeException("Policy template not found"));
-        
-        return new PolicyResponse(policy);
     }
 
     // ==========================================================================
@@ -141,35 +178,122 @@ public class PolicyService {
     /**
      * Fetch all policy templates - PUBLIC ACCESS
      * Policy templates serve as a product catalog and should be publicly visible
+     * Served from the in-memory catalog; the returned list is shared and read-only
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<PolicyResponse> fetchAllPolicyTemplates() {
-        List<Policy> policies = policyRepository.findAll();
-        
-        return policies.stream()
-            .map(PolicyResponse::new)
-            .collect(Collectors.toList());
+        return policyCatalogCache.findAll();
+    }
+
+    /**
+     * Fetch all policy templates as pre-rendered JSON with ETag - PUBLIC ACCESS
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public PolicyCatalogCache.RenderedCatalog fetchRenderedPolicyTemplates() {
+        return policyCatalogCache.rendered();
+    }
+
+    /**
+     * Search policy templates with filters and keyset pagination - PUBLIC ACCESS
+     * Each page continues after the last row of the previous one (opaque cursor),
+     * so deep pages cost the same as the first
+     */
+    // Read-only: Hibernate loads the page's entities read-only (no snapshots, no flush)
+    @Transactional(readOnly = true)
+    public PolicySearchResponse searchPolicyTemplates(PolicySearchCriteria criteria) {
+        String sortField = criteria.getSortBy() != null ? criteria.getSortBy() : "policyId";
+        Function<String, Comparable<?>> sortValueParser = SORT_FIELDS.get(sortField);
+        if (sortValueParser == null) {
+            throw new BadRequestException("Invalid sort field. Allowed: " + String.join(", ", SORT_FIELDS.keySet()));
+        }
+        boolean descending = "desc".equalsIgnoreCase(criteria.getDirection());
+        String order = sortField + "|" + (descending ? "desc" : "asc");
+        Policy.PolicyStatus status = null;
+        if (criteria.getPolicyStatus() != null) {
+            try {
+                status = Policy.PolicyStatus.valueOf(criteria.getPolicyStatus().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid policyStatus. Allowed: " + Arrays.stream(Policy.PolicyStatus.values())
+                    .map(Enum::name).collect(Collectors.joining(", ")));
+            }
+        }
+
+        // Cursor = "<sortBy>|<direction>|<sort value>|<policyId>" of the last row already returned;
+        // the order is included so a cursor cannot be replayed against a different sort.
+        // An empty sort value stands for NULL (templates without an end date, say)
+        Comparable<?> lastSortValue = null;
+        Long lastPolicyId = null;
+        if (criteria.getCursor() != null) {
+            String decoded;
+            try {
+                decoded = new String(Base64.getUrlDecoder().decode(criteria.getCursor()), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            if (!decoded.startsWith(order + "|")) {
+                throw new BadRequestException("Cursor does not match the requested sortBy and direction");
+            }
+            try {
+                String position = decoded.substring(order.length() + 1);
+                int separator = position.lastIndexOf('|');
+                lastPolicyId = Long.valueOf(position.substring(separator + 1));
+                String sortValue = position.substring(0, separator);
+                lastSortValue = sortValue.isEmpty() ? null : sortValueParser.apply(sortValue);
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = "policyId".equals(sortField)
+            ? Sort.by(direction, "policyId")
+            : Sort.by(direction, sortField).and(Sort.by(direction, "policyId"));
+        int size = Math.max(1, Math.min(criteria.getSize(), 100));
+
+        // Fetch one extra row to know whether another page exists
+        List<Policy> rows = policyRepository.findBy(
+            PolicySpecifications.matching(criteria, status)
+                .and(PolicySpecifications.sortedAfter(sortField, lastSortValue, lastPolicyId, descending)),
+            query -> query.sortBy(sort).limit(size + 1).all());
+
+        boolean hasMore = rows.size() > size;
+        List<Policy> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Policy last = page.get(page.size() - 1);
+            Object value = switch (sortField) {
+                case "premiumAmount" -> last.getPremiumAmount();
+                case "coverageAmount" -> last.getCoverageAmount();
+                case "startDate" -> last.getStartDate();
+                case "endDate" -> last.getEndDate();
+                default -> last.getPolicyId();
+            };
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((order + "|" + (value != null ? value : "") + "|" + last.getPolicyId())
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+
+        return new PolicySearchResponse(page.stream().map(PolicyResponse::new).toList(), nextCursor);
     }
 
     /**
      * Fetch policy template by ID - PUBLIC ACCESS
      * Policy templates serve as a product catalog and should be publicly visible
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public PolicyResponse fetchPolicyTemplateById(Long policyId) {
-        Policy policy = policyRepository.findById(policyId)
+        return policyCatalogCache.findById(policyId)
             .orElseThrow(() -> new RuntimeException("Policy template not found"));
-        
-        return new PolicyResponse(policy);
     }
 
     /**
      * Fetch policy template by policy number - PUBLIC ACCESS
      * Policy templates serve as a product catalog and should be publicly visible
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public PolicyResponse fetchPolicyTemplateByNumber(String policyNumber) {
-        Policy policy = policyRepository.findByPolicyNumber(policyNumber)
+        return policyCatalogCache.findByPolicyNumber(policyNumber)
             .orElseThrow(() -> new RuntimeException("Policy template not found"));
-        
-        return new PolicyResponse(policy);
     }
 
     /*
@@ -183,12 +307,4 @@ public class PolicyService {
      * This PolicyService now only handles policy template CRUD operations.
      * ==========================================================================
      */
-
-    /**
-     * Helper method to get current user from principal
-     */
-    private User getCurrentUser(Principal principal) {
-        return userRepository.findByUsername(principal.getName())
-            .orElseThrow(() -> new RuntimeException("User not found"));
-    }
 }
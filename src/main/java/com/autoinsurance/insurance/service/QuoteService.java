@@ -0,0 +1,99 @@
+package com.autoinsurance.insurance.service;
+
+import com.autoinsurance.insurance.dto.PolicyResponse;
+import com.autoinsurance.insurance.dto.QuoteBatchResponse;
+import com.autoinsurance.insurance.dto.QuoteResponse;
+import com.autoinsurance.insurance.model.User;
+import com.autoinsurance.insurance.repository.ClaimRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Premium quotes for the current user over the policy template catalog.
+ * Rating runs against a RatingTable memoized per catalog snapshot: it is rebuilt only when
+ * PolicyCatalogCache hands out a new snapshot. A quote costs one claim-count query per
+ * request (not per template) plus in-memory array lookups.
+ */
+@Service
+@Transactional(readOnly = true)
+public class QuoteService {
+
+    @Autowired
+    private PolicyCatalogCache policyCatalogCache;
+
+    @Autowired
+    private ClaimRepository claimRepository;
+
+    private volatile RatingTable ratingTable;
+
+    /**
+     * Quote one template for the current user
+     */
+    public QuoteResponse quote(Long policyTemplateId, User currentUser) {
+        RatingTable table = currentTable();
+        int claimCount = claimCount(currentUser);
+        int index = table.indexOf(policyTemplateId);
+        if (index < 0 || !table.isQuotable(index)) {
+            throw new RuntimeException("Policy template not available for quotes");
+        }
+        return toResponse(table, index, policyTemplateId, currentUser.getAge(), claimCount);
+    }
+
+    /**
+     * Quote several templates (all active templates if none are given) for the current user
+     */
+    public QuoteBatchResponse quoteBatch(List<Long> policyTemplateIds, User currentUser) {
+        RatingTable table = currentTable();
+        int claimCount = claimCount(currentUser);
+        List<Long> ids = policyTemplateIds != null && !policyTemplateIds.isEmpty()
+                ? policyTemplateIds
+                : policyCatalogCache.findAll().stream().map(PolicyResponse::getPolicyId).toList();
+
+        List<QuoteResponse> quotes = new ArrayList<>(ids.size());
+        List<Long> unavailable = new ArrayList<>();
+        for (Long id : ids) {
+            int index = id == null ? -1 : table.indexOf(id);
+            if (index >= 0 && table.isQuotable(index)) {
+                quotes.add(toResponse(table, index, id, currentUser.getAge(), claimCount));
+            } else if (policyTemplateIds != null && !policyTemplateIds.isEmpty()) {
+                unavailable.add(id);
+            }
+        }
+        return new QuoteBatchResponse(quotes, unavailable);
+    }
+
+    private RatingTable currentTable() {
+        List<PolicyResponse> catalog = policyCatalogCache.findAll();
+        RatingTable table = ratingTable;
+        if (table == null || !table.isBuiltFrom(catalog)) {
+            // Concurrent rebuilds for the same snapshot produce equal tables; last one wins
+            table = RatingTable.build(catalog);
+            ratingTable = table;
+        }
+        return table;
+    }
+
+    private int claimCount(User customer) {
+        return (int) Math.min(claimRepository.countRatedClaimsByCustomerId(customer.getUserId()), RatingTable.MAX_CLAIMS);
+    }
+
+    private QuoteResponse toResponse(RatingTable table, int index, Long policyTemplateId, Integer age, int claimCount) {
+        // Template and rating data come from the same snapshot, even if the catalog has moved on
+        PolicyResponse template = table.template(index);
+        long premiumCents = table.quoteCentsAt(index, age, claimCount);
+        return new QuoteResponse(
+                policyTemplateId,
+                template.getPolicyNumber(),
+                template.getVehicleType(),
+                BigDecimal.valueOf(table.baseCents(index), 2),
+                RatingTable.ageFactor(age),
+                table.vehicleFactor(index),
+                RatingTable.claimFactor(claimCount),
+                BigDecimal.valueOf(premiumCents, 2));
+    }
+}
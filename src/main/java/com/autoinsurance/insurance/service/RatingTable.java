@@ -0,0 +1,159 @@
+package com.autoinsurance.insurance.service;
+
+import com.autoinsurance.insurance.dto.PolicyResponse;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable rating data for premium quotes, built once per catalog snapshot.
+ * Template data is held in parallel primitive arrays sorted by policy id, and the customer
+ * factors are lookup tables indexed by age, vehicle class and claim count. quoteCents() does
+ * a binary search and three array reads, and allocates nothing.
+ *
+ * premium = base premium x age factor x vehicle factor x claim-history factor
+ */
+public final class RatingTable {
+
+    public static final int MIN_AGE = 16;
+    public static final int MAX_AGE = 100;
+    // Claim counts at or above this share the last factor
+    public static final int MAX_CLAIMS = 5;
+
+    private static final double[] AGE_FACTORS = ageFactors();
+
+    // Vehicle classes, matched on the template's vehicle type text
+    private static final String[] VEHICLE_KEYWORDS = {"motorcycle", "bike", "truck", "van", "suv", "car"};
+    private static final double[] VEHICLE_KEYWORD_FACTORS = {1.40, 1.40, 1.25, 1.15, 1.10, 1.00};
+    private static final double OTHER_VEHICLE_FACTOR = 1.05;
+
+    // Open or approved claims on record: 0, 1, 2, 3, 4, 5+
+    private static final double[] CLAIM_FACTORS = {1.00, 1.15, 1.35, 1.60, 1.90, 2.20};
+
+    private final List<PolicyResponse> source;
+    private final PolicyResponse[] templates;
+    private final long[] templateIds;
+    private final long[] baseCents;
+    private final double[] vehicleFactors;
+    private final boolean[] active;
+
+    private RatingTable(List<PolicyResponse> source) {
+        PolicyResponse[] sorted = source.toArray(new PolicyResponse[0]);
+        Arrays.sort(sorted, (a, b) -> Long.compare(a.getPolicyId(), b.getPolicyId()));
+        int size = sorted.length;
+        this.source = source;
+        this.templates = sorted;
+        this.templateIds = new long[size];
+        this.baseCents = new long[size];
+        this.vehicleFactors = new double[size];
+        this.active = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            PolicyResponse policy = sorted[i];
+            templateIds[i] = policy.getPolicyId();
+            baseCents[i] = policy.getPremiumAmount() == null ? 0
+                    : policy.getPremiumAmount().movePointRight(2).longValue();
+            vehicleFactors[i] = vehicleFactor(policy.getVehicleType());
+            active[i] = "ACTIVE".equals(policy.getPolicyStatus()) && baseCents[i] > 0;
+        }
+    }
+
+    /**
+     * Rating table for a catalog snapshot; the list is kept to detect when the catalog changes.
+     */
+    public static RatingTable build(List<PolicyResponse> catalog) {
+        return new RatingTable(catalog);
+    }
+
+    public boolean isBuiltFrom(List<PolicyResponse> catalog) {
+        return source == catalog;
+    }
+
+    /**
+     * Position of the template in the table, or a negative value if unknown.
+     */
+    public int indexOf(long templateId) {
+        return Arrays.binarySearch(templateIds, templateId);
+    }
+
+    /**
+     * Quoted premium in cents, or -1 if the template is unknown or not open for quotes.
+     * A null age (not on file) is rated as standard.
+     */
+    public long quoteCents(long templateId, Integer age, int claimCount) {
+        int index = indexOf(templateId);
+        if (index < 0 || !active[index]) {
+            return -1;
+        }
+        return quoteCentsAt(index, age, claimCount);
+    }
+
+    /**
+     * quoteCents() for a position already returned by indexOf() and checked with isQuotable().
+     */
+    public long quoteCentsAt(int index, Integer age, int claimCount) {
+        return Math.round(baseCents[index] * ageFactor(age) * vehicleFactors[index] * claimFactor(claimCount));
+    }
+
+    /**
+     * The template at a position, from the same catalog snapshot as the rating data.
+     */
+    public PolicyResponse template(int index) {
+        return templates[index];
+    }
+
+    public boolean isQuotable(int index) {
+        return active[index];
+    }
+
+    public long baseCents(int index) {
+        return baseCents[index];
+    }
+
+    public double vehicleFactor(int index) {
+        return vehicleFactors[index];
+    }
+
+    public static double ageFactor(Integer age) {
+        if (age == null) {
+            return 1.0;
+        }
+        return AGE_FACTORS[Math.min(Math.max(age, MIN_AGE), MAX_AGE) - MIN_AGE];
+    }
+
+    public static double claimFactor(int claimCount) {
+        return CLAIM_FACTORS[Math.min(Math.max(claimCount, 0), MAX_CLAIMS)];
+    }
+
+    private static double vehicleFactor(String vehicleType) {
+        if (vehicleType == null) {
+            return OTHER_VEHICLE_FACTOR;
+        }
+        String normalized = vehicleType.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < VEHICLE_KEYWORDS.length; i++) {
+            if (normalized.contains(VEHICLE_KEYWORDS[i])) {
+                return VEHICLE_KEYWORD_FACTORS[i];
+            }
+        }
+        return OTHER_VEHICLE_FACTOR;
+    }
+
+    // Young drivers pay most, tapering to standard at 30; a mild increase again from 70
+    private static double[] ageFactors() {
+        double[] factors = new double[MAX_AGE - MIN_AGE + 1];
+        for (int age = MIN_AGE; age <= MAX_AGE; age++) {
+            double factor;
+            if (age < 25) {
+                factor = 1.80 - (age - MIN_AGE) * 0.05;
+            } else if (age < 30) {
+                factor = 1.25 - (age - 25) * 0.05;
+            } else if (age < 70) {
+                factor = 1.00;
+            } else {
+                factor = 1.00 + (age - 69) * 0.02;
+            }
+            factors[age - MIN_AGE] = factor;
+        }
+        return factors;
+    }
+}
@@ -9,12 +9,10 @@ import com.autoinsurance.insurance.model.*;
 import com.autoinsurance.insurance.repository.ClaimRepository;
 import com.autoinsurance.insurance.repository.PolicyEnrollmentRepository;
 import com.autoinsurance.insurance.repository.SupportTicketRepository;
-import com.autoinsurance.insurance.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.security.Principal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -26,9 +24,6 @@ public class SupportService {
     @Autowired
     private SupportTicketRepository supportTicketRepository;
 
-    @Autowired
-    private UserRepository userRepository;
-
     @Autowired
     private PolicyEnrollmentRepository policyEnrollmentRepository;
 
@@ -38,9 +33,7 @@ public class SupportService {
     /**
      * Create a new support ticket (CUSTOMER only)
      */
-    public SupportTicketResponse createTicket(SupportTicketRequest request, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-
+    public SupportTicketResponse createTicket(SupportTicketRequest request, User currentUser) {
         // Only customers can create support tickets
         if (currentUser.getRole() != Role.CUSTOMER) {
             throw new AccessDeniedException("Only customers can create support tickets");
@@ -87,9 +80,7 @@ public class SupportService {
      * - CUSTOMER: Can only view their own tickets
      * - ADMIN: Can view any ticket
      */
-    public SupportTicketResponse getTicketDetails(Long ticketId, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-        
+    public SupportTicketResponse getTicketDetails(Long ticketId, User currentUser) {
         SupportTicket ticket = supportTicketRepository.findById(ticketId)
                 .orElseThrow(() -> new ResourceNotFoundException("Support ticket not found"));
 
@@ -105,9 +96,7 @@ public class SupportService {
     /**
      * Resolve a support ticket (ADMIN only)
      */
-    public SupportTicketResponse resolveTicket(Long ticketId, TicketResolutionRequest request, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-
+    public SupportTicketResponse resolveTicket(Long ticketId, TicketResolutionRequest request, User currentUser) {
         // Only admins can resolve tickets
         if (currentUser.getRole() != Role.ADMIN) {
             throw new AccessDeniedException("Only admins can resolve support tickets");
@@ -136,9 +125,7 @@ public class SupportService {
 
      * - ADMIN: Gets all tickets
      */
-    public List<SupportTicketResponse> getAllTickets(Principal principal) {
-        User currentUser = getCurrentUser(principal);
-
+    public List<SupportTicketResponse> getAllTickets(User currentUser) {
         List<SupportTicket> tickets;
 
         switch (currentUser.getRole()) {
@@ -162,9 +149,7 @@ public class SupportService {
     /**
      * Get all open tickets (ADMIN only)
      */
-    public List<SupportTicketResponse> getAllOpenTickets(Principal principal) {
-        User currentUser = getCurrentUser(principal);
-
+    public List<SupportTicketResponse> getAllOpenTickets(User currentUser) {
         // Only admins can view all open tickets
         if (currentUser.getRole() != Role.ADMIN) {
             throw new AccessDeniedException("Only admins can view all open tickets");
@@ -180,9 +165,7 @@ public class SupportService {
     /**
      * Get customer's tickets by status
      */
-    public List<SupportTicketResponse> getTicketsByStatus(TicketStatus status, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-
+    public List<SupportTicketResponse> getTicketsByStatus(TicketStatus status, User currentUser) {
         List<SupportTicket> tickets;
 
         if (currentUser.getRole() == Role.CUSTOMER) {
@@ -201,9 +184,7 @@ public class SupportService {
     /**
      * Get tickets resolved by current admin
      */
-    public List<SupportTicketResponse> getTicketsResolvedByMe(Principal principal) {
-        User currentUser = getCurrentUser(principal);
-
+    public List<SupportTicketResponse> getTicketsResolvedByMe(User currentUser) {
         // Only admins can have resolved tickets
         if (currentUser.getRole() == Role.CUSTOMER) {
             throw new AccessDeniedException("Customers cannot access resolved ticket statistics");
@@ -215,13 +196,4 @@ public class SupportService {
                 .map(SupportTicketResponse::new)
                 .collect(Collectors.toList());
     }
-
-    /**
-     * Helper method to get current user from principal
-     */
-    private User getCurrentUser(Principal principal) {
-        String username = principal.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
-    }
 }
@@ -0,0 +1,129 @@
+package com.autoinsurance.insurance.service;
+
+import com.autoinsurance.insurance.model.User;
+import com.autoinsurance.insurance.repository.UserRepository;
+import com.autoinsurance.insurance.security.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, expiring user caches:
+ * - credentials: login-time auth projection keyed by whichever of username/email was entered
+ *   (backs UserDetailsServiceImpl)
+ * - byUsername: full User entities for the request's current user (backs @CurrentUser)
+ * Entries are detached copies; any write to a user must call one of the invalidate methods.
+ * Each cache keeps a userId -> keys index, so invalidate(userId) drops every entry of a user
+ * (old username, email, differently cased login) without scanning the cache.
+ * Hit, miss and eviction counts are published as cache.* metrics
+ * (cache=users.credentials / users.byUsername).
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, AuthenticatedUser> credentials;
+    private final Cache<String, User> byUsername;
+    private final KeyIndex credentialKeys = new KeyIndex();
+    private final KeyIndex byUsernameKeys = new KeyIndex();
+
+    public UserCache(UserRepository userRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${user-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.credentials = newCache(maximumSize, ttlSeconds, credentialKeys, AuthenticatedUser::getUserId);
+        this.byUsername = newCache(maximumSize, ttlSeconds, byUsernameKeys, User::getUserId);
+        CaffeineCacheMetrics.monitor(meterRegistry, credentials, "users.credentials");
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername, "users.byUsername");
+    }
+
+    private static <V> Cache<String, V> newCache(long maximumSize, long ttlSeconds, KeyIndex index,
+                                                 Function<V, Long> userId) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                // Runs synchronously for size/expiry evictions, so the index never outlives its entries
+                .<String, V>evictionListener((key, value, cause) -> {
+                    if (key != null && value != null) {
+                        index.remove(userId.apply(value), key);
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Auth projection for a login name (username or email), used to verify passwords.
+     * Loaded with a single query that matches either column. Unknown users are not cached.
+     */
+    public Optional<AuthenticatedUser> findCredentials(String usernameOrEmail) {
+        return Optional.ofNullable(credentials.get(usernameOrEmail, login -> userRepository.findAuthByLogin(login)
+                .map(view -> new AuthenticatedUser(view.getUserId(), view.getUsername(), view.getEmail(),
+                        view.getPassword(), view.getRole(), view.getTokenVersion()))
+                .map(user -> credentialKeys.add(user.getUserId(), login, user))
+                .orElse(null)));
+    }
+
+    /**
+     * Full User entity by username, loading and caching it on a miss.
+     * Unknown users are not cached.
+     */
+    public Optional<User> findByUsername(String username) {
+        return Optional.ofNullable(byUsername.get(username, key -> userRepository.findByUsername(key)
+                .map(user -> byUsernameKeys.add(user.getUserId(), key, user))
+                .orElse(null)));
+    }
+
+    public void invalidate(String username, String email) {
+        if (username != null) {
+            credentials.invalidate(username);
+            byUsername.invalidate(username);
+        }
+        if (email != null) {
+            credentials.invalidate(email);
+        }
+    }
+
+    /**
+     * Drop every entry for the user, whatever username/email it was cached under.
+     */
+    public void invalidate(Long userId) {
+        credentials.invalidateAll(credentialKeys.take(userId));
+        byUsername.invalidateAll(byUsernameKeys.take(userId));
+    }
+
+    /**
+     * Cache keys per user id. Entries are added by the loaders and removed on eviction or invalidation.
+     */
+    private static final class KeyIndex {
+        private final ConcurrentMap<Long, Set<String>> keysByUserId = new ConcurrentHashMap<>();
+
+        <V> V add(Long userId, String key, V value) {
+            keysByUserId.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(key);
+            return value;
+        }
+
+        void remove(Long userId, String key) {
+            keysByUserId.computeIfPresent(userId, (id, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+
+        Set<String> take(Long userId) {
+            Set<String> keys = keysByUserId.remove(userId);
+            return keys != null ? keys : Set.of();
+        }
+    }
+}
@@ -2,36 +2,50 @@ package com.autoinsurance.insurance.service;
 
 import com.autoinsurance.insurance.model.User;
 import com.autoinsurance.insurance.repository.UserRepository;
+import com.autoinsurance.insurance.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+    @Autowired
+    private UserCache userCache;
+
     @Autowired
     private UserRepository userRepository;
 
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        User user = findUserByUsernameOrEmail(usernameOrEmail)
+        return userCache.findCredentials(usernameOrEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username/email: " + usernameOrEmail));
-        
-        return user;
     }
 
     /**
-     * Find user by username or email
+     * Store an upgraded password hash (called after a successful login with an outdated hash).
+     * Only replaces the hash the login was checked against: if the password was changed in the
+     * meantime, nothing is written and the user is returned unchanged.
      */
-    private java.util.Optional<User> findUserByUsernameOrEmail(String usernameOrEmail) {
-        // Check if input looks like an email (contains @)
-        if (usernameOrEmail.contains("@")) {
-            return userRepository.findByEmail(usernameOrEmail);
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (userRepository.updatePassword(user.getUsername(), user.getPassword(), newPassword) == 0) {
+            return user;
+        }
+        if (user instanceof AuthenticatedUser authenticatedUser) {
+            userCache.invalidate(authenticatedUser.getUserId());
+        } else if (user instanceof User cachedUser) {
+            userCache.invalidate(cachedUser.getUserId());
         } else {
-            return userRepository.findByUsername(usernameOrEmail);
+            userCache.invalidate(user.getUsername(), null);
         }
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
     }
 }
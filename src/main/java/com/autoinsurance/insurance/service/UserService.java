@@ -4,12 +4,11 @@ import com.autoinsurance.insurance.dto.UserResponse;
 import com.autoinsurance.insurance.model.Role;
 import com.autoinsurance.insurance.model.User;
 import com.autoinsurance.insurance.repository.UserRepository;
+import com.autoinsurance.insurance.security.RefreshTokenStore;
+import com.autoinsurance.insurance.security.TokenVersionCache;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import java.security.Principal;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -19,6 +18,15 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -40,29 +48,35 @@ public class UserService {
         return userRepository.findByRole(Role.CUSTOMER);
     }
 
-    public User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return null;
-        }
-        
-        return (User) authentication.getPrincipal();
-    }
-
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userCache.invalidate(savedUser.getUserId());
+        tokenVersionCache.invalidate(savedUser.getUserId());
+        return savedUser;
     }
 
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        refreshTokenStore.revokeAll(id);
+        userCache.invalidate(id);
+        tokenVersionCache.invalidate(id);
+    }
+
+    /**
+     * Revoke all JWTs issued to a user: their refresh tokens are deleted, and bumping the
+     * token version rejects their access tokens when jwt.revocation-check.enabled is set.
+     */
+    public void revokeTokens(Long userId) {
+        refreshTokenStore.revokeAll(userId);
+        userRepository.incrementTokenVersion(userId);
+        userCache.invalidate(userId);
+        tokenVersionCache.invalidate(userId);
     }
     
     /**
      * Get all users with detailed information - Admin access only
      */
-    public List<UserResponse> getAllUsersDetailed(Principal principal) {
-        User currentUser = getCurrentUserFromPrincipal(principal);
-        
+    public List<UserResponse> getAllUsersDetailed(User currentUser) {
         // Check if user has permission (ADMIN only)
         if (currentUser.getRole() != Role.ADMIN) {
             throw new RuntimeException("Access denied. Only admins can view user details.");
@@ -76,9 +90,7 @@ public class UserService {
     /**
      * Get user by ID with detailed information - Admin access only
      */
-    public UserResponse getUserDetailedById(Long userId, Principal principal) {
-        User currentUser = getCurrentUserFromPrincipal(principal);
-        
+    public UserResponse getUserDetailedById(Long userId, User currentUser) {
         // Check if user has permission (ADMIN only)
         if (currentUser.getRole() != Role.ADMIN) {
             throw new RuntimeException("Access denied. Only admins can view user details.");
@@ -93,9 +105,7 @@ public class UserService {
     /**
      * Get all customers with detailed information - Admin access only
      */
-    public List<UserResponse> getAllCustomersDetailed(Principal principal) {
-        User currentUser = getCurrentUserFromPrincipal(principal);
-        
+    public List<UserResponse> getAllCustomersDetailed(User currentUser) {
         // Check if user has permission (ADMIN only)
         if (currentUser.getRole() != Role.ADMIN) {
             throw new RuntimeException("Access denied. Only admins can view customer details.");
@@ -105,12 +115,4 @@ public class UserService {
                 .map(UserResponse::new)
                 .collect(Collectors.toList());
     }
-    
-    /**
-     * Helper method to get current user from Principal
-     */
-    private User getCurrentUserFromPrincipal(Principal principal) {
-        return userRepository.findByUsername(principal.getName())
-                .orElseThrow(() -> new RuntimeException("Current user not found"));
-    }
 }
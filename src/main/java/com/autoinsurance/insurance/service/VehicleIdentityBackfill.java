@@ -0,0 +1,100 @@
+package com.autoinsurance.insurance.service;
+
+import com.autoinsurance.insurance.model.VehicleIdentity;
+import com.autoinsurance.insurance.repository.EnrollmentVehicleDetails;
+import com.autoinsurance.insurance.repository.PolicyEnrollmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * One-off fill of vin, registration_number and vehicle_identity_hash for enrollments written
+ * before those columns existed. Started in the background once the application is ready, so it
+ * never holds up startup; walks the table in id order, one short transaction per batch, writing
+ * only the vehicle columns with a bulk UPDATE (no entity callbacks, no other columns touched).
+ * A row whose vehicle was already enrolled is flagged vehicle_identity_conflict and logged once;
+ * flagged rows are skipped on later runs. Once every row is done, the first query finds nothing.
+ */
+@Component
+public class VehicleIdentityBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleIdentityBackfill.class);
+
+    private final PolicyEnrollmentRepository enrollmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final int batchSize;
+
+    public VehicleIdentityBackfill(PolicyEnrollmentRepository enrollmentRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                   @Value("${enrollment.vehicle-identity.backfill-batch-size:500}") int batchSize) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        taskExecutor.execute(this::backfill);
+    }
+
+    /**
+     * Fill every remaining row; returns the number of rows given a vehicle identity.
+     */
+    public int backfill() {
+        long afterId = 0;
+        int filled = 0;
+        try {
+            while (true) {
+                List<EnrollmentVehicleDetails> batch =
+                        enrollmentRepository.findWithoutVehicleIdentity(afterId, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                afterId = batch.get(batch.size() - 1).getEnrollmentId();
+                filled += transactionTemplate.execute(status -> fill(batch));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Another node is filling the same rows; whatever is left is picked up on the next start
+            logger.warn("Vehicle identity backfill stopped after {} rows: {}", filled, e.getMostSpecificCause().getMessage());
+            return filled;
+        }
+        if (filled > 0) {
+            logger.info("Stored vehicle identities for {} existing enrollments", filled);
+        }
+        return filled;
+    }
+
+    private int fill(List<EnrollmentVehicleDetails> batch) {
+        int filled = 0;
+        for (EnrollmentVehicleDetails row : batch) {
+            VehicleIdentity identity = VehicleIdentity.parse(row.getVehicleDetails());
+            if (identity == null) {
+                continue;
+            }
+            // Bulk UPDATEs run immediately, so this also sees rows filled earlier in the batch
+            if (enrollmentRepository.existsByVehicleIdentityHash(identity.getHash())) {
+                enrollmentRepository.markVehicleIdentityConflict(row.getEnrollmentId());
+                logger.warn("Enrollment {} has the same vehicle as an earlier enrollment; flagged vehicle_identity_conflict",
+                        row.getEnrollmentId());
+            } else {
+                enrollmentRepository.updateVehicleIdentity(row.getEnrollmentId(), identity.getVin(),
+                        identity.getRegistrationNumber(), identity.getHash());
+                filled++;
+            }
+        }
+        return filled;
+    }
+}
@@ -0,0 +1,162 @@
+package com.autoinsurance.insurance.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.autoinsurance.insurance.model.Role;
+import com.autoinsurance.insurance.security.AuthenticatedUser;
+import com.autoinsurance.insurance.security.JwtAuthenticationFilter;
+import com.autoinsurance.insurance.security.JwtUtils;
+import com.autoinsurance.insurance.security.TokenRevocationStore;
+import com.autoinsurance.insurance.security.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JwtAuthenticationFilter under a realistic token mix:
+ * 80% valid tokens from 200 active users, 10% expired, 10% malformed or badly signed.
+ * - legacy: old path (key and parser rebuilt, token parsed twice, exceptions for bad tokens)
+ * - uncached: single parse on the shared parser, no verified-token LRU
+ * - filter: the real filter, with the LRU and the revocation check
+ * Logging is switched off so the scores compare CPU and allocation, not console I/O.
+ * Add -prof gc to see allocation per operation.
+ *
+ * Run from the IDE via main(), or:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.autoinsurance.insurance.benchmark.JwtAuthenticationFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "mysecretkeymysecretkeymysecretkeymysecretkeymysecretkeymysecretkey";
+    private static final int MIX_SIZE = 1000;
+    private static final int ACTIVE_USERS = 200;
+
+    private JwtUtils jwtUtils;
+    private JwtAuthenticationFilter filter;
+    private String[] tokens;
+    private MockHttpServletRequest[] requests;
+    private String filteredAttribute;
+
+    @Setup
+    public void setUp() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.OFF);
+
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 900_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "verifiedTokenCache", new VerifiedTokenCache(jwtUtils, new SimpleMeterRegistry(), 10_000));
+        ReflectionTestUtils.setField(filter, "tokenRevocationStore", new TokenRevocationStore(new SimpleMeterRegistry()));
+        filteredAttribute = JwtAuthenticationFilter.class.getName() + ".FILTERED";
+
+        List<String> mix = new ArrayList<>(MIX_SIZE);
+        String[] active = new String[ACTIVE_USERS];
+        for (int i = 0; i < ACTIVE_USERS; i++) {
+            active[i] = accessToken(i);
+        }
+        for (int i = 0; i < MIX_SIZE * 8 / 10; i++) {
+            mix.add(active[i % ACTIVE_USERS]);
+        }
+
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", -60_000L);
+        for (int i = 0; i < MIX_SIZE / 10; i++) {
+            mix.add(accessToken(ACTIVE_USERS + i));
+        }
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 900_000L);
+
+        for (int i = 0; i < MIX_SIZE / 10; i++) {
+            if (i % 2 == 0) {
+                mix.add("not-a-jwt-" + i);
+            } else {
+                // Well-formed token with a tampered signature
+                String valid = active[i % ACTIVE_USERS];
+                mix.add(valid.substring(0, valid.length() - 4) + "AAAA");
+            }
+        }
+        Collections.shuffle(mix, new Random(42));
+
+        tokens = mix.toArray(new String[0]);
+        requests = new MockHttpServletRequest[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            requests[i] = new MockHttpServletRequest("GET", "/api/policies");
+            requests[i].addHeader("Authorization", "Bearer " + tokens[i]);
+        }
+    }
+
+    private String accessToken(int userId) {
+        AuthenticatedUser principal = new AuthenticatedUser((long) userId, "user" + userId, Role.CUSTOMER, 0);
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int advance() {
+            next = (next + 1) % MIX_SIZE;
+            return next;
+        }
+    }
+
+    @Benchmark
+    public String legacy(Cursor cursor) {
+        String token = tokens[cursor.advance()];
+        try {
+            // original validateJwtToken: new key + new parser + full parse
+            Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build().parseClaimsJws(token);
+            // original getUsernameFromJwtToken: the same again
+            return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                    .parseClaimsJws(token).getBody().getSubject();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Object uncached(Cursor cursor) {
+        var claims = jwtUtils.parseAndValidate(tokens[cursor.advance()]);
+        return claims != null ? jwtUtils.toPrincipal(claims) : null;
+    }
+
+    @Benchmark
+    public Object filter(Cursor cursor) throws Exception {
+        MockHttpServletRequest request = requests[cursor.advance()];
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        request.removeAttribute(filteredAttribute);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,73 @@
+package com.autoinsurance.insurance.benchmark;
+
+import com.autoinsurance.insurance.model.Role;
+import com.autoinsurance.insurance.security.AuthenticatedUser;
+import com.autoinsurance.insurance.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JWT verification in JwtAuthenticationFilter.
+ * "legacy" reproduces the old path (key and parser rebuilt, token parsed twice),
+ * "cached" is the single-parse path on the shared key and parser.
+ *
+ * Run from the IDE via main(), or:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.autoinsurance.insurance.benchmark.JwtUtilsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private static final String SECRET = "mysecretkeymysecretkeymysecretkeymysecretkeymysecretkeymysecretkey";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+
+        AuthenticatedUser principal = new AuthenticatedUser(42L, "bench.user", Role.CUSTOMER, 0);
+        token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    public String legacy() {
+        // original validateJwtToken: new key + new parser + full parse
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build().parseClaimsJws(token);
+        // original getUsernameFromJwtToken: the same again
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String cached() {
+        Claims claims = jwtUtils.parseAndValidate(token);
+        return claims.getSubject();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtUtilsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,60 @@
+package com.autoinsurance.insurance.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login throughput per core for each candidate password encoder setting.
+ * A login costs one matches() call; with a single benchmark thread the ops/s score is
+ * logins per second per core, which is what security.password.bcrypt-strength should be tuned against.
+ *
+ * Run from the IDE via main(), or:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.autoinsurance.insurance.benchmark.PasswordEncoderBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(1)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "correct-horse-battery-staple";
+
+    @Param({"bcrypt-10", "bcrypt-11", "bcrypt-12", "bcrypt-13", "argon2"})
+    public String encoder;
+
+    private PasswordEncoder passwordEncoder;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        if (encoder.startsWith("bcrypt-")) {
+            passwordEncoder = new BCryptPasswordEncoder(Integer.parseInt(encoder.substring("bcrypt-".length())));
+        } else {
+            passwordEncoder = Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+        }
+        storedHash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean login() {
+        return passwordEncoder.matches(PASSWORD, storedHash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PasswordEncoderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,125 @@
+package com.autoinsurance.insurance.benchmark;
+
+import com.autoinsurance.insurance.dto.PolicyResponse;
+import com.autoinsurance.insurance.model.Policy;
+import com.autoinsurance.insurance.service.RatingTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rating one quote over a 500-template catalog, for a random mix of
+ * (template, age, claim count) requests.
+ * - boxed: HashMap lookup by Long id and BigDecimal arithmetic per factor
+ * - ratingTable: RatingTable.quoteCents (binary search over long[], double factors, no allocation)
+ * Add -prof gc to see allocation per operation.
+ *
+ * Run from the IDE via main(), or:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.autoinsurance.insurance.benchmark.QuoteEngineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuoteEngineBenchmark {
+
+    private static final int TEMPLATES = 500;
+    private static final int MIX_SIZE = 4096;
+    private static final String[] VEHICLE_TYPES = {"Car", "SUV", "Truck", "Van", "Motorcycle", "Tractor"};
+
+    private RatingTable ratingTable;
+    private Map<Long, PolicyResponse> byId;
+    private long[] templateIds;
+    private int[] ages;
+    private int[] claimCounts;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<PolicyResponse> catalog = new ArrayList<>(TEMPLATES);
+        byId = new HashMap<>();
+        for (int i = 0; i < TEMPLATES; i++) {
+            PolicyResponse policy = new PolicyResponse((long) (i * 3 + 1000), "P-" + i,
+                    VEHICLE_TYPES[i % VEHICLE_TYPES.length], BigDecimal.valueOf(50_000),
+                    "COMPREHENSIVE", BigDecimal.valueOf(200 + random.nextInt(2000), 0).add(new BigDecimal("0.99")),
+                    LocalDate.of(2026, 1, 1), LocalDate.of(2030, 1, 1), Policy.PolicyStatus.ACTIVE);
+            catalog.add(policy);
+            byId.put(policy.getPolicyId(), policy);
+        }
+        ratingTable = RatingTable.build(catalog);
+
+        templateIds = new long[MIX_SIZE];
+        ages = new int[MIX_SIZE];
+        claimCounts = new int[MIX_SIZE];
+        for (int i = 0; i < MIX_SIZE; i++) {
+            templateIds[i] = catalog.get(random.nextInt(TEMPLATES)).getPolicyId();
+            ages[i] = 18 + random.nextInt(70);
+            claimCounts[i] = random.nextInt(100) < 70 ? 0 : random.nextInt(7);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int advance() {
+            next = (next + 1) & (MIX_SIZE - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    public BigDecimal boxed(Cursor cursor) {
+        int i = cursor.advance();
+        PolicyResponse template = byId.get(templateIds[i]);
+        return template.getPremiumAmount()
+                .multiply(BigDecimal.valueOf(RatingTable.ageFactor(ages[i])))
+                .multiply(BigDecimal.valueOf(vehicleFactor(template.getVehicleType())))
+                .multiply(BigDecimal.valueOf(RatingTable.claimFactor(claimCounts[i])))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public long ratingTable(Cursor cursor) {
+        int i = cursor.advance();
+        return ratingTable.quoteCents(templateIds[i], ages[i], claimCounts[i]);
+    }
+
+    // Per-quote text matching, as a naive engine would do it
+    private static double vehicleFactor(String vehicleType) {
+        String normalized = vehicleType.toLowerCase();
+        if (normalized.contains("motorcycle")) {
+            return 1.40;
+        } else if (normalized.contains("truck")) {
+            return 1.25;
+        } else if (normalized.contains("van")) {
+            return 1.15;
+        } else if (normalized.contains("suv")) {
+            return 1.10;
+        } else if (normalized.contains("car")) {
+            return 1.00;
+        }
+        return 1.05;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(QuoteEngineBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,66 @@
+package com.autoinsurance.insurance.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Plain unit tests, no Spring context.
+ */
+class VehicleIdentityTests {
+
+	@Test
+	void parsesVinAndRegistration() {
+		VehicleIdentity identity = VehicleIdentity.parse("Toyota Camry 2020, VIN: 1hgcm82633a004352, Reg No. KA01 AB 1234");
+
+		assertEquals("1HGCM82633A004352", identity.getVin());
+		assertEquals("KA01AB1234", identity.getRegistrationNumber());
+	}
+
+	@Test
+	void findsUnlabeledVinAndStopsRegistrationAtFollowingWords() {
+		VehicleIdentity identity = VehicleIdentity.parse("plate: MH12DE1433 Honda City 1HGCM82633A004352");
+
+		assertEquals("1HGCM82633A004352", identity.getVin());
+		assertEquals("MH12DE1433", identity.getRegistrationNumber());
+	}
+
+	@Test
+	void rejectsVinWithForbiddenLetters() {
+		// I, O and Q never appear in a VIN
+		assertNull(VehicleIdentity.parse("VIN 1HGCM82633A00435O").getVin());
+	}
+
+	@Test
+	void sameVehicleHashesAlikeWhateverTheFormatting() {
+		assertArrayEquals(
+				VehicleIdentity.parse("VIN: 1HGCM82633A004352 (silver)").getHash(),
+				VehicleIdentity.parse("Silver Accord  vin 1HGC-M826-33A0-04352").getHash());
+		assertArrayEquals(
+				VehicleIdentity.parse("Registration: AB12 CDE").getHash(),
+				VehicleIdentity.parse("reg ab12-cde").getHash());
+		assertArrayEquals(
+				VehicleIdentity.parse("Red  Toyota\tCorolla 2019").getHash(),
+				VehicleIdentity.parse("  red toyota corolla 2019 ").getHash());
+	}
+
+	@Test
+	void differentVehiclesHashApart() {
+		byte[] first = VehicleIdentity.parse("VIN 1HGCM82633A004352").getHash();
+		byte[] second = VehicleIdentity.parse("VIN 1HGCM82633A004353").getHash();
+
+		assertEquals(VehicleIdentity.HASH_LENGTH, first.length);
+		assertFalse(Arrays.equals(first, second));
+	}
+
+	@Test
+	void blankDetailsHaveNoIdentity() {
+		assertNull(VehicleIdentity.parse(null));
+		assertNull(VehicleIdentity.parse("   "));
+	}
+}
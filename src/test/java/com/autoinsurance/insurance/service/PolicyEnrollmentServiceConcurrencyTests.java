@@ -0,0 +1,183 @@
+package com.autoinsurance.insurance.service;
+
+import com.autoinsurance.insurance.dto.PolicyEnrollmentResponse;
+import com.autoinsurance.insurance.model.Policy;
+import com.autoinsurance.insurance.model.PolicyEnrollment;
+import com.autoinsurance.insurance.model.Role;
+import com.autoinsurance.insurance.model.User;
+import com.autoinsurance.insurance.repository.PolicyEnrollmentRepository;
+import com.autoinsurance.insurance.repository.PolicyRepository;
+import com.autoinsurance.insurance.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parallel and conflicting calls through PolicyEnrollmentService, on an in-memory H2 database;
+ * conflicts must surface as service errors, never as raw constraint violations.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:enrollments;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"policy-number.node-id=1"
+})
+class PolicyEnrollmentServiceConcurrencyTests {
+
+	private static final int THREADS = 8;
+
+	@Autowired
+	private PolicyEnrollmentService enrollmentService;
+
+	@Autowired
+	private PolicyEnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private PolicyRepository policyRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private User customer;
+	private Policy template;
+
+	@BeforeEach
+	void setUp() {
+		customer = userRepository.save(new User("Test", "Customer", "concurrent-customer", "secret",
+				"concurrent@example.com", Role.CUSTOMER));
+		template = saveTemplate("CONCURRENT-1");
+	}
+
+	@AfterEach
+	void tearDown() {
+		enrollmentRepository.deleteAll();
+		policyRepository.deleteAll();
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void parallelRetriesWithOneIdempotencyKeyReturnTheSameEnrollment() throws Exception {
+		List<Future<PolicyEnrollmentResponse>> results = runInParallel(attempt -> () ->
+				enrollmentService.enrollInPolicyTemplate(template.getPolicyId(), "VIN 1HGCM82633A004352", "retry-1", customer));
+
+		Long enrollmentId = results.get(0).get().getEnrollmentId();
+		for (Future<PolicyEnrollmentResponse> result : results) {
+			PolicyEnrollmentResponse response = result.get();
+			assertEquals(enrollmentId, response.getEnrollmentId());
+			assertEquals("1HGCM82633A004352", response.getVin());
+		}
+		assertEquals(1, enrollmentRepository.count());
+	}
+
+	@Test
+	void parallelEnrollmentsWithoutKeyCreateOneAndRejectTheRest() throws Exception {
+		List<Future<PolicyEnrollmentResponse>> results = runInParallel(attempt -> () ->
+				enrollmentService.enrollInPolicyTemplate(template.getPolicyId(), "Vehicle " + attempt, null, customer));
+
+		int succeeded = 0;
+		for (Future<PolicyEnrollmentResponse> result : results) {
+			try {
+				result.get();
+				succeeded++;
+			} catch (ExecutionException e) {
+				// Rejected by the eligibility check or by uk_policy_enrollments_active_key, never a raw constraint error
+				RuntimeException rejection = assertInstanceOf(RuntimeException.class, e.getCause());
+				assertEquals(RuntimeException.class, rejection.getClass());
+				assertTrue(rejection.getMessage().startsWith("You already have a pending"), rejection.getMessage());
+			}
+		}
+		assertEquals(1, succeeded);
+		assertEquals(1, enrollmentRepository.count());
+	}
+
+	@Test
+	void sameVehicleOnAnotherTemplateIsReportedAsDuplicateVehicle() {
+		Policy otherTemplate = saveTemplate("CONCURRENT-2");
+		enrollmentService.enrollInPolicyTemplate(template.getPolicyId(), "Reg: KA01 AB 1234", null, customer);
+
+		RuntimeException rejection = assertThrows(RuntimeException.class, () ->
+				enrollmentService.enrollInPolicyTemplate(otherTemplate.getPolicyId(), "reg ka01-ab-1234", null, customer));
+		assertTrue(rejection.getMessage().startsWith("This vehicle is already enrolled"), rejection.getMessage());
+	}
+
+	@Test
+	void idempotencyKeyReusedForAnotherTemplateIsRejected() {
+		Policy otherTemplate = saveTemplate("CONCURRENT-2");
+		enrollmentService.enrollInPolicyTemplate(template.getPolicyId(), "Vehicle A", "retry-1", customer);
+
+		RuntimeException rejection = assertThrows(RuntimeException.class, () ->
+				enrollmentService.enrollInPolicyTemplate(otherTemplate.getPolicyId(), "Vehicle B", "retry-1", customer));
+		assertTrue(rejection.getMessage().startsWith("Idempotency-Key was already used"), rejection.getMessage());
+
+		// The first enrollment still holds both the key and its pair
+		assertEquals(1, enrollmentRepository.count());
+		assertEquals(template.getPolicyId(), enrollmentRepository
+				.findByCustomerIdAndIdempotencyKey(customer.getUserId(), "retry-1")
+				.orElseThrow().getPolicyTemplate().getPolicyId());
+		assertTrue(enrollmentRepository.existsByActiveEnrollmentKey(
+				PolicyEnrollment.activeEnrollmentKey(customer.getUserId(), template.getPolicyId())));
+	}
+
+	@Test
+	void declinedEnrollmentFreesThePairForANewOne() {
+		User admin = userRepository.save(new User("Test", "Admin", "concurrent-admin", "secret",
+				"concurrent-admin@example.com", Role.ADMIN));
+		PolicyEnrollmentResponse first =
+				enrollmentService.enrollInPolicyTemplate(template.getPolicyId(), "Vehicle A", null, customer);
+		assertThrows(RuntimeException.class, () ->
+				enrollmentService.enrollInPolicyTemplate(template.getPolicyId(), "Vehicle B", null, customer));
+
+		enrollmentService.declineEnrollment(first.getEnrollmentId(), "Incomplete documents", admin);
+		assertNull(enrollmentRepository.findById(first.getEnrollmentId()).orElseThrow().getActiveEnrollmentKey());
+
+		enrollmentService.enrollInPolicyTemplate(template.getPolicyId(), "Vehicle C", null, customer);
+		assertEquals(2, enrollmentRepository.count());
+	}
+
+	private Policy saveTemplate(String policyNumber) {
+		return policyRepository.save(new Policy(policyNumber, "Car", new BigDecimal("50000.00"), "Full",
+				new BigDecimal("1200.00"), LocalDate.now(), LocalDate.now().plusYears(1), Policy.PolicyStatus.ACTIVE));
+	}
+
+	private List<Future<PolicyEnrollmentResponse>> runInParallel(
+			IntFunction<Callable<PolicyEnrollmentResponse>> call) throws InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<PolicyEnrollmentResponse>> results = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			Callable<PolicyEnrollmentResponse> task = call.apply(i);
+			results.add(pool.submit(() -> {
+				start.await();
+				return task.call();
+			}));
+		}
+		start.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+		return results;
+	}
+}
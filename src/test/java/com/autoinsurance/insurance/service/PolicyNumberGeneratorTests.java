@@ -0,0 +1,93 @@
+package com.autoinsurance.insurance.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plain unit tests, no Spring context.
+ */
+class PolicyNumberGeneratorTests {
+
+	private static final int THREADS = 16;
+	private static final int IDS_PER_THREAD = 25_000;
+
+	@Test
+	void concurrentEnrollmentsOnTwoNodesNeverCollide() throws Exception {
+		PolicyNumberGenerator[] nodes = {new PolicyNumberGenerator(1), new PolicyNumberGenerator(2)};
+		Set<String> numbers = ConcurrentHashMap.newKeySet();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				PolicyNumberGenerator generator = nodes[t % nodes.length];
+				results.add(pool.submit(() -> {
+					start.await();
+					long previous = -1;
+					boolean increasing = true;
+					for (int i = 0; i < IDS_PER_THREAD; i++) {
+						long id = generator.nextId();
+						increasing &= id > previous;
+						previous = id;
+						numbers.add(generator.next("POL-1"));
+					}
+					return increasing;
+				}));
+			}
+
+			start.countDown();
+			for (Future<Boolean> result : results) {
+				assertTrue(result.get(60, TimeUnit.SECONDS), "ids must increase within a thread");
+			}
+			assertEquals(THREADS * IDS_PER_THREAD, numbers.size(), "duplicate policy number generated");
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void burstWithinOneMillisecondStaysUniqueAndIncreasing() {
+		PolicyNumberGenerator generator = new PolicyNumberGenerator(7, () -> PolicyNumberGenerator.EPOCH_MS + 1_000);
+		long previous = -1;
+		// More than the 4096 sequence values of a single millisecond
+		for (int i = 0; i < 10_000; i++) {
+			long id = generator.nextId();
+			assertTrue(id > previous);
+			assertEquals(7, (id >>> PolicyNumberGenerator.SEQUENCE_BITS) & PolicyNumberGenerator.MAX_NODE_ID);
+			previous = id;
+		}
+	}
+
+	@Test
+	void clockSteppingBackDoesNotRepeatIds() {
+		AtomicLong now = new AtomicLong(PolicyNumberGenerator.EPOCH_MS + 60_000);
+		PolicyNumberGenerator generator = new PolicyNumberGenerator(3, now::get);
+		long before = generator.nextId();
+		now.addAndGet(-5_000);
+		assertTrue(generator.nextId() > before);
+	}
+
+	@Test
+	void nodeIdMustFitInTenBits() {
+		assertThrows(IllegalArgumentException.class, () -> new PolicyNumberGenerator(-1));
+		assertThrows(IllegalArgumentException.class, () -> new PolicyNumberGenerator(PolicyNumberGenerator.MAX_NODE_ID + 1));
+
+		PolicyNumberGenerator generator = new PolicyNumberGenerator(PolicyNumberGenerator.MAX_NODE_ID);
+		assertEquals(PolicyNumberGenerator.MAX_NODE_ID,
+				(generator.nextId() >>> PolicyNumberGenerator.SEQUENCE_BITS) & PolicyNumberGenerator.MAX_NODE_ID);
+	}
+}